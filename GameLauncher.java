@@ -3,6 +3,8 @@ import java.util.List;
 import characters.Hero;
 import core.GameEngine;
 import core.ValorGameEngine;
+import data.CatalogPreloader;
+import data.CatalogWatcher;
 import data.HeroFactory;
 import io.BannerPrinter;
 import io.ConsoleInputHandler;
@@ -18,6 +20,11 @@ import world.World;
 public class GameLauncher {
 
     public void start() {
+        // Read all catalog files in the background while the player picks a mode / party.
+        CatalogPreloader.start();
+        // Pick up designer edits to the catalog files without restarting.
+        CatalogWatcher.start();
+
         Renderer renderer = new ConsoleRenderer();
         InputHandler input = new ConsoleInputHandler();
         BannerPrinter bannerPrinter = new BannerPrinter(renderer);
@@ -7,7 +7,6 @@ import characters.Hero;
 import characters.Monster;
 import io.InputHandler;
 import io.Renderer;
-import items.Item;
 import items.Spell;
 
 public class CastSpellAction implements HeroAction {
@@ -26,13 +25,7 @@ public class CastSpellAction implements HeroAction {
                         StandardBattle.BattleContext ctx) {
 
         // Collect all spells in hero inventory
-        List<Item> items = hero.getInventory().getItems();
-        List<Spell> spells = new ArrayList<Spell>();
-        for (Item item : items) {
-            if (item instanceof Spell) {
-                spells.add((Spell) item);
-            }
-        }
+        List<Spell> spells = hero.getInventory().getSpells();
 
         if (spells.isEmpty()) {
             renderer.renderMessage(hero.getName() + " has no spells.");
@@ -44,7 +37,8 @@ public class CastSpellAction implements HeroAction {
         for (int i = 0; i < spells.size(); i++) {
             Spell s = spells.get(i);
             String effectDesc = (s.getEffect() != null) ? s.getEffect().describe() : "";
-            renderer.renderMessage("  " + (i + 1) + ") " + s.getName() +
+            int count = hero.getInventory().getCount(s);
+            renderer.renderMessage("  " + (i + 1) + ") " + s.getName() + (count > 1 ? " x" + count : "") +
                     " | Dmg: " + s.getBaseDamage() +
                     " | MP: " + s.getManaCost() +
                     " | Effect: " + effectDesc);
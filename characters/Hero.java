@@ -8,14 +8,18 @@ import items.Armor;
 import items.Potion;
 import items.Weapon;
 import items.Potion.StatType;
+import characters.StatModifiers.Source;
+import characters.StatModifiers.Stat;
 
 public class Hero extends AbstractCharacter {
 
     private int mana;
     private int maxMana;
+    // Base stats (class bonus, level-ups, potions); temporary bonuses live in modifiers
     private int strength;
     private int dexterity;
     private int agility;
+    private final StatModifiers modifiers = new StatModifiers();
     private long experience;
     private int gold;
 
@@ -27,6 +31,20 @@ public class Hero extends AbstractCharacter {
 
     private Inventory inventory; // assume you have this class
 
+    // Derived-stat sheet: combat numbers computed from the stats and gear above.
+    // Recomputed lazily after anything they depend on changes (level-up, equip,
+    // potion, modifier change), so battles read plain fields on every hit.
+    private boolean sheetStale = true;
+    private int effectiveStrength;
+    private int effectiveDexterity;
+    private int effectiveAgility;
+    private int attackDamage;
+    private int dodgeChance;   // percent 0-100
+    private int spellBonus;
+    private int armorReduction;
+
+    private final Random dodgeRoll = new Random();
+
     public Hero(String name, HeroType type, int level,
                 int maxHp, int mana, int strength, int dexterity, int agility,
                 int gold) {
@@ -43,6 +61,25 @@ public class Hero extends AbstractCharacter {
         applyInitialClassBonus();
     }
 
+    /**
+     * Fresh hero with the prototype's name, class, level, stats, XP and gold,
+     * but its own empty inventory and nothing equipped. Used to stamp out heroes
+     * from pre-leveled roster templates without replaying level-ups.
+     */
+    public Hero(Hero prototype) {
+        super(prototype.name, prototype.level, prototype.maxHp);
+        this.hp = prototype.hp;
+        this.type = prototype.type;
+        this.mana = prototype.mana;
+        this.maxMana = prototype.maxMana;
+        this.strength = prototype.strength;
+        this.dexterity = prototype.dexterity;
+        this.agility = prototype.agility;
+        this.experience = prototype.experience;
+        this.gold = prototype.gold;
+        this.inventory = new Inventory();
+    }
+
     private void applyInitialClassBonus() {
         int bonus = GameBalance.HERO_INITIAL_FAVORED_BONUS;
         switch (type) {
@@ -67,60 +104,99 @@ public class Hero extends AbstractCharacter {
         return GameBalance.xpRequiredForLevel(targetLevel);
     }
 
+    /**
+     * Adds XP and jumps straight to the level it reaches (never lowers the level).
+     * Each level's bonuses are fixed, so gaining k levels at once adds k times them;
+     * the result is the same as levelling up one step at a time.
+     */
     public void gainExperience(long xp) {
         experience += xp;
-        while (experience >= expRequiredForLevel(level + 1)) {
-            levelUp();
+        int target = GameBalance.levelForExperience(experience);
+        if (target > level) {
+            levelUp(target - level);
         }
     }
 
-    private void levelUp() {
-        level++;
-        maxHp += GameBalance. HERO_LEVELUP_HP_BONUS;
+    private void levelUp(int levels) {
+        level += levels;
+        maxHp += levels * GameBalance.HERO_LEVELUP_HP_BONUS;
         hp = maxHp;
-        maxMana += GameBalance.HERO_LEVELUP_MANA_BONUS;
+        maxMana += levels * GameBalance.HERO_LEVELUP_MANA_BONUS;
         mana = maxMana;
 
-        strength  += GameBalance.HERO_LEVELUP_STAT_BONUS;
-        dexterity += GameBalance.HERO_LEVELUP_STAT_BONUS;
-        agility   += GameBalance.HERO_LEVELUP_STAT_BONUS;
+        int statBonus = levels * GameBalance.HERO_LEVELUP_STAT_BONUS;
+        int favoredBonus = levels * GameBalance.HERO_LEVELUP_FAVORED_BONUS;
+        strength  += statBonus;
+        dexterity += statBonus;
+        agility   += statBonus;
 
         switch (type) {
             case WARRIOR:
-                strength  += GameBalance.HERO_LEVELUP_FAVORED_BONUS;
-                agility   += GameBalance.HERO_LEVELUP_FAVORED_BONUS;
+                strength  += favoredBonus;
+                agility   += favoredBonus;
                 break;
             case SORCERER:
-                dexterity += GameBalance.HERO_LEVELUP_FAVORED_BONUS;
-                agility   += GameBalance.HERO_LEVELUP_FAVORED_BONUS;
+                dexterity += favoredBonus;
+                agility   += favoredBonus;
                 break;
             case PALADIN:
-                strength  += GameBalance.HERO_LEVELUP_FAVORED_BONUS;
-                dexterity += GameBalance.HERO_LEVELUP_FAVORED_BONUS;
+                strength  += favoredBonus;
+                dexterity += favoredBonus;
                 break;
             default:
                 break;
         }
+        invalidateStats();
     }
 
-    public int basicAttackDamage() {
+    private void invalidateStats() {
+        sheetStale = true;
+    }
+
+    private void refreshStats() {
+        if (!sheetStale) return;
+        effectiveStrength = modifiers.apply(Stat.STRENGTH, strength);
+        effectiveDexterity = modifiers.apply(Stat.DEXTERITY, dexterity);
+        effectiveAgility = modifiers.apply(Stat.AGILITY, agility);
+
         int weaponDamage = 0;
         if (equippedWeapon != null) {
             weaponDamage = equippedWeapon.getEffectiveDamage(usingWeaponTwoHanded);
         }
-        return (int)(strength * GameBalance.HERO_ATTACK_STRENGTH_FACTOR + weaponDamage);
+        attackDamage = (int)(effectiveStrength * GameBalance.HERO_ATTACK_STRENGTH_FACTOR + weaponDamage);
+
+        int chance = (int)(effectiveAgility / GameBalance.HERO_DODGE_AGILITY_DIVISOR);
+        dodgeChance = Math.min(chance, 100);
+
+        spellBonus = (int)(effectiveDexterity / GameBalance.SPELL_DEX_DIVISOR);
+        armorReduction = equippedArmor != null ? equippedArmor.getDamageReduction() : 0;
+        sheetStale = false;
+    }
+
+    public int basicAttackDamage() {
+        refreshStats();
+        return attackDamage;
+    }
+
+    /** Chance (percent, 0-100) that an incoming attack misses. */
+    public int getDodgeChance() {
+        refreshStats();
+        return dodgeChance;
+    }
+
+    /** Extra damage added to every spell this hero casts (from dexterity). */
+    public int getSpellBonus() {
+        refreshStats();
+        return spellBonus;
     }
 
     public boolean tryDodge() {
-        Random r = new Random();
-        int roll = r.nextInt(100);
-        int chance = (int)(agility / GameBalance.HERO_DODGE_AGILITY_DIVISOR);
-        if (chance > 100) chance = 100;
-        return roll < chance;
+        return dodgeRoll.nextInt(100) < getDodgeChance();
     }
 
     public int getArmorReduction() {
-        return equippedArmor != null ? equippedArmor.getDamageReduction() : 0;
+        refreshStats();
+        return armorReduction;
     }
 
     public void equipWeapon(Weapon weapon, boolean useTwoHands) {
@@ -130,6 +206,7 @@ public class Hero extends AbstractCharacter {
         } else {
             this.usingWeaponTwoHanded = useTwoHands;
         }
+        invalidateStats();
     }
 
     public void equipWeapon(Weapon weapon) {
@@ -138,6 +215,7 @@ public class Hero extends AbstractCharacter {
 
     public void equipArmor(Armor armor) {
         this.equippedArmor = armor;
+        invalidateStats();
     }
 
     public Weapon getEquippedWeapon() { return equippedWeapon; }
@@ -172,6 +250,7 @@ public class Hero extends AbstractCharacter {
             default:
                 break;
         }
+        invalidateStats();
     }
 
     public void restoreMana(int delta) {
@@ -215,34 +294,41 @@ public class Hero extends AbstractCharacter {
         return expRequiredForLevel(level + 1) - experience;
     }
 
+    // Effective stats (base + active modifiers)
     public int getStrength() {
-        return strength;
-    }
-
-    public int getDexterity() {
-        return dexterity;
-    }
-
-    public int getAgility() {
-        return agility;
-    }
-
-
-    // getters for stats, xp, gold, inventory...
-
-    // Temporary stat adjustments (e.g., terrain buffs)
-    public void adjustStrength(int delta) {
-        strength += delta;
-        if (strength < 0) strength = 0;
-    }
-
-    public void adjustDexterity(int delta) {
-        dexterity += delta;
-        if (dexterity < 0) dexterity = 0;
-    }
-
-    public void adjustAgility(int delta) {
-        agility += delta;
-        if (agility < 0) agility = 0;
-    }
+        refreshStats();
+        return effectiveStrength;
+    }
+
+    public int getDexterity() {
+        refreshStats();
+        return effectiveDexterity;
+    }
+
+    public int getAgility() {
+        refreshStats();
+        return effectiveAgility;
+    }
+
+    public int getBaseStrength()  { return strength; }
+    public int getBaseDexterity() { return dexterity; }
+    public int getBaseAgility()   { return agility; }
+
+
+    // getters for stats, xp, gold, inventory...
+
+    // Temporary stat adjustments (e.g., terrain buffs), undone by clearModifiers
+    public void setModifier(Source source, Stat stat, int flatBonus, int percentBonus) {
+        modifiers.set(source, stat, flatBonus, percentBonus);
+        invalidateStats();
+    }
+
+    public void clearModifiers(Source source) {
+        modifiers.clear(source);
+        invalidateStats();
+    }
+
+    public boolean hasModifiers(Source source) {
+        return modifiers.isActive(source);
+    }
 }
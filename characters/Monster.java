@@ -9,7 +9,28 @@ public class Monster extends AbstractCharacter {
     private int dodgeChance; // percent 0-100
 
     public Monster(String name, int level, int damage, int defense, int dodgeChance) {
-        super(name, level, GameBalance.monsterHpForLevel(level));
+        this(name, level, GameBalance.monsterHpForLevel(level), damage, defense, dodgeChance);
+    }
+
+    /**
+     * For callers that already know the max HP (e.g. pre-scaled stat blocks).
+     */
+    public Monster(String name, int level, int maxHp, int damage, int defense, int dodgeChance) {
+        super(name, level, maxHp);
+        this.damage = damage;
+        this.defense = defense;
+        this.dodgeChance = dodgeChance;
+    }
+
+    /**
+     * Turn this (fainted) monster into a fresh one, as if newly constructed.
+     * Lets a session recycle monster objects between waves instead of allocating.
+     */
+    public void respawn(String name, int level, int maxHp, int damage, int defense, int dodgeChance) {
+        this.name = name;
+        this.level = level;
+        this.maxHp = maxHp;
+        this.hp = maxHp;
         this.damage = damage;
         this.defense = defense;
         this.dodgeChance = dodgeChance;
@@ -0,0 +1,76 @@
+package characters;
+
+/**
+ * Temporary stat modifiers layered over a hero's base stats, tagged by where they come from.
+ *
+ * Each source holds at most one flat and one percent bonus per stat, and the totals over
+ * all sources are kept up to date as sources change, so setting or clearing a source and
+ * reading an effective stat are all constant-time. Base stats are never touched, so
+ * removing a modifier always gives back exactly what was there before.
+ *
+ * effective = max(0, (base + flat total) * (100 + percent total) / 100)
+ */
+public final class StatModifiers {
+
+    public enum Stat {
+        STRENGTH,
+        DEXTERITY,
+        AGILITY
+    }
+
+    public enum Source {
+        TERRAIN,  // tile the hero stands on (bush, cave, koulou)
+        STATUS    // timed buffs/debuffs
+    }
+
+    private static final Stat[] STATS = Stat.values();
+    private static final int SOURCES = Source.values().length;
+
+    // [source][stat] bonus currently applied by each source
+    private final int[][] flat = new int[SOURCES][STATS.length];
+    private final int[][] percent = new int[SOURCES][STATS.length];
+
+    // Sums over all sources, updated together with the slots above
+    private final int[] flatTotal = new int[STATS.length];
+    private final int[] percentTotal = new int[STATS.length];
+
+    /** Replace whatever this source was adding to the stat. */
+    public void set(Source source, Stat stat, int flatBonus, int percentBonus) {
+        int s = source.ordinal();
+        int i = stat.ordinal();
+        flatTotal[i] += flatBonus - flat[s][i];
+        percentTotal[i] += percentBonus - percent[s][i];
+        flat[s][i] = flatBonus;
+        percent[s][i] = percentBonus;
+    }
+
+    /** Remove everything this source adds, to every stat. */
+    public void clear(Source source) {
+        int s = source.ordinal();
+        for (int i = 0; i < STATS.length; i++) {
+            flatTotal[i] -= flat[s][i];
+            percentTotal[i] -= percent[s][i];
+            flat[s][i] = 0;
+            percent[s][i] = 0;
+        }
+    }
+
+    public boolean isActive(Source source) {
+        int s = source.ordinal();
+        for (int i = 0; i < STATS.length; i++) {
+            if (flat[s][i] != 0 || percent[s][i] != 0) return true;
+        }
+        return false;
+    }
+
+    public int getFlat(Source source, Stat stat) {
+        return flat[source.ordinal()][stat.ordinal()];
+    }
+
+    /** The stat with every active modifier applied. */
+    public int apply(Stat stat, int base) {
+        int i = stat.ordinal();
+        long value = (long) (base + flatTotal[i]) * (100 + percentTotal[i]) / 100;
+        return (int) Math.max(0, value);
+    }
+}
@@ -20,6 +20,20 @@ public final class GameBalance {
         return XP_BASE_PER_LEVEL_STEP * n * (n + 1) / 2;
     }
 
+    /**
+     * Inverse of xpRequiredForLevel: the highest level whose requirement is <= xp.
+     * Solves n(n+1)/2 <= xp / XP_BASE for n with one square root, then nudges n
+     * by integer checks so floating-point rounding can never change the answer.
+     */
+    public static int levelForExperience(long xp) {
+        if (xp < XP_BASE_PER_LEVEL_STEP) return 1;
+        long steps = xp / XP_BASE_PER_LEVEL_STEP;
+        long n = (long) ((Math.sqrt(8.0 * steps + 1) - 1) / 2);
+        while (n > 0 && n * (n + 1) / 2 > steps) n--;
+        while ((n + 1) * (n + 2) / 2 <= steps) n++;
+        return (int) (n + 1);
+    }
+
     public static final int HERO_LEVELUP_HP_BONUS      = 50;
     public static final int HERO_LEVELUP_MANA_BONUS    = 10;
     public static final int HERO_LEVELUP_STAT_BONUS    = 5;
@@ -1,6 +1,5 @@
 package core;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
@@ -150,6 +149,9 @@ public class GameEngine {
         // Heal heroes slightly after a successful move (NOT in battle)
         healHeroesAfterMove();
 
+        // Start stocking any market the party could step onto next
+        prepareAdjacentMarkets();
+
         // Trigger random event (good/bad) if applicable
         eventManager.maybeTriggerEvent(world, party);
 
@@ -170,7 +172,7 @@ public class GameEngine {
                 MarketTile mTile = (MarketTile) current;
                 if (mTile.getMarket() == null) {
                     int avgLevel = averageHeroLevel();
-                    mTile.setMarket(new Market(itemFactory, avgLevel));
+                    mTile.setMarket(new Market(avgLevel));
                 }
                 // We no longer auto-open here; player can choose option 5 in exploration.
             }
@@ -189,6 +191,22 @@ public class GameEngine {
     // MARKET ACCESS
     // ------------------------------------------------------------
 
+    private void prepareAdjacentMarkets() {
+        Position pos = world.getPartyPosition();
+        int[][] offsets = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+        for (int[] d : offsets) {
+            int r = pos.getRow() + d[0];
+            int c = pos.getCol() + d[1];
+            if (r < 0 || c < 0 || r >= world.getSize() || c >= world.getSize()) continue;
+
+            // Not a visit: an evicted neighbour stays evicted and nothing moves in the LRU
+            Tile tile = world.getTile(r, c);
+            if (tile instanceof MarketTile && !((MarketTile) tile).hasMarket()) {
+                ((MarketTile) tile).warmMarket(Market.prepare(averageHeroLevel()));
+            }
+        }
+    }
+
     private void openMarketOnCurrentTile() {
         Tile tile = world.getCurrentTile();
         if (!(tile instanceof MarketTile)) {
@@ -199,10 +217,16 @@ public class GameEngine {
         MarketTile mTile = (MarketTile) tile;
         if (mTile.getMarket() == null) {
             int avgLevel = averageHeroLevel();
-            mTile.setMarket(new Market(itemFactory, avgLevel));
+            mTile.setMarket(new Market(avgLevel));
         }
 
-        marketController.openMarket(mTile.getMarket(), party);
+        // Pinned while the party shops, so it cannot be evicted mid-visit
+        Market market = mTile.acquireMarket();
+        try {
+            marketController.openMarket(market, party);
+        } finally {
+            mTile.releaseMarket();
+        }
     }
 
     private int averageHeroLevel() {
@@ -285,20 +309,15 @@ public class GameEngine {
         renderer.renderMessage(hero.getName() + "'s inventory:");
         for (int i = 0; i < items.size(); i++) {
             Item it = items.get(i);
+            int count = hero.getInventory().getCount(it);
             renderer.renderMessage("  " + (i + 1) + ") " +
-                    it.getName() + " (Lv " + it.getRequiredLevel() +
+                    it.getName() + (count > 1 ? " x" + count : "") + " (Lv " + it.getRequiredLevel() +
                     ", Price " + it.getPrice() + ")");
         }
     }
 
     private void equipWeaponForHero(Hero hero) {
-        List<Item> items = hero.getInventory().getItems();
-        List<Weapon> weapons = new ArrayList<Weapon>();
-        for (Item item : items) {
-            if (item instanceof Weapon) {
-                weapons.add((Weapon) item);
-            }
-        }
+        List<Weapon> weapons = hero.getInventory().getWeapons();
         if (weapons.isEmpty()) {
             renderer.renderMessage("No weapons available to equip.");
             return;
@@ -350,13 +369,7 @@ public class GameEngine {
     }
 
     private void equipArmorForHero(Hero hero) {
-        List<Item> items = hero.getInventory().getItems();
-        List<Armor> armors = new ArrayList<Armor>();
-        for (Item item : items) {
-            if (item instanceof Armor) {
-                armors.add((Armor) item);
-            }
-        }
+        List<Armor> armors = hero.getInventory().getArmors();
         if (armors.isEmpty()) {
             renderer.renderMessage("No armor available to equip.");
             return;
@@ -391,13 +404,7 @@ public class GameEngine {
     }
 
     private void usePotionForHero(Hero hero) {
-        List<Item> items = hero.getInventory().getItems();
-        List<Potion> potions = new ArrayList<Potion>();
-        for (Item item : items) {
-            if (item instanceof Potion) {
-                potions.add((Potion) item);
-            }
-        }
+        List<Potion> potions = hero.getInventory().getPotions();
         if (potions.isEmpty()) {
             renderer.renderMessage("No potions available.");
             return;
@@ -406,7 +413,8 @@ public class GameEngine {
         renderer.renderMessage("Choose a potion to use:");
         for (int i = 0; i < potions.size(); i++) {
             Potion p = potions.get(i);
-            renderer.renderMessage("  " + (i + 1) + ") " + p.getName() +
+            int count = hero.getInventory().getCount(p);
+            renderer.renderMessage("  " + (i + 1) + ") " + p.getName() + (count > 1 ? " x" + count : "") +
                     " (Effect " + p.getAmount() +
                     " on " + p.getStatType() +
                     ", Req Lv " + p.getRequiredLevel() + ")");
@@ -0,0 +1,59 @@
+package core.valor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import characters.Monster;
+import core.Position;
+import data.MonsterFactory;
+
+/**
+ * Per-session recycling of monsters and their board positions.
+ *
+ * Cleanup hands fainted monsters (and the Position they died on) back here, and the
+ * next wave is stamped onto those same objects from fresh templates, so a long game
+ * reaches a steady state where waves allocate nothing. Only one session uses a pool,
+ * so it is not thread-safe.
+ */
+public final class MonsterPool {
+
+    private final ArrayDeque<Monster> spareMonsters = new ArrayDeque<Monster>();
+    private final ArrayDeque<Position> sparePositions = new ArrayDeque<Position>();
+
+    // Reused for every wave; callers copy what they keep before the next spawn.
+    private final List<Monster> spawned = new ArrayList<Monster>();
+
+    /** A fainted monster leaves the board; pos may be null. */
+    public void release(Monster monster, Position pos) {
+        if (monster != null) spareMonsters.push(monster);
+        if (pos != null) sparePositions.push(pos);
+    }
+
+    public void releasePosition(Position pos) {
+        if (pos != null) sparePositions.push(pos);
+    }
+
+    /** A position at (row, col), reusing a released one when there is one. */
+    public Position position(int row, int col) {
+        Position pos = sparePositions.poll();
+        if (pos == null) return new Position(row, col);
+        pos.setRow(row);
+        pos.setCol(col);
+        return pos;
+    }
+
+    /**
+     * Spawn like {@link MonsterFactory#spawnMonstersForBattle(int, int)}, recycling
+     * released monsters first. The returned list is reused by the next call.
+     */
+    public List<Monster> spawn(MonsterFactory factory, int count, int targetLevel) {
+        spawned.clear();
+        factory.spawnMonstersForBattle(count, targetLevel, spareMonsters, spawned);
+        return spawned;
+    }
+
+    public int spareCount() {
+        return spareMonsters.size();
+    }
+}
@@ -0,0 +1,117 @@
+package core.valor;
+
+import java.util.Arrays;
+
+import data.NameTable;
+
+/**
+ * What happened this round, kept compactly until the round summary is shown.
+ *
+ * Each entry is a constant template plus int arguments: "%s" takes a name, stored as
+ * its {@link NameTable} id, and "%d" takes a number ("%%" is a literal percent). The
+ * text is only put together in {@link #line}, so logging a hit costs a few ints, not a
+ * new String per name and number.
+ *
+ * There is one add() per argument shape the game logs, with plain String and int
+ * parameters, so nothing is boxed and no varargs array is built. They take names
+ * before numbers, so templates put every %s before the first %d.
+ */
+public final class RoundLog {
+
+    private String[] templates = new String[32];
+    private int[] argStart = new int[33]; // entry i's args are args[argStart[i] .. argStart[i + 1])
+    private int[] args = new int[64];
+    private int size;
+
+    public void add(String template) {
+        commit(template, reserve(0));
+    }
+
+    public void add(String template, String name) {
+        int at = reserve(1);
+        args[at++] = NameTable.idOf(name);
+        commit(template, at);
+    }
+
+    public void add(String template, String name1, String name2) {
+        int at = reserve(2);
+        args[at++] = NameTable.idOf(name1);
+        args[at++] = NameTable.idOf(name2);
+        commit(template, at);
+    }
+
+    public void add(String template, String name, int a, int b) {
+        int at = reserve(3);
+        args[at++] = NameTable.idOf(name);
+        args[at++] = a;
+        args[at++] = b;
+        commit(template, at);
+    }
+
+    public void add(String template, String name1, String name2, int a) {
+        int at = reserve(3);
+        args[at++] = NameTable.idOf(name1);
+        args[at++] = NameTable.idOf(name2);
+        args[at++] = a;
+        commit(template, at);
+    }
+
+    public void add(String template, String name1, String name2, String name3, int a) {
+        int at = reserve(4);
+        args[at++] = NameTable.idOf(name1);
+        args[at++] = NameTable.idOf(name2);
+        args[at++] = NameTable.idOf(name3);
+        args[at++] = a;
+        commit(template, at);
+    }
+
+    // Room for one more entry with argCount args; returns where its args go.
+    private int reserve(int argCount) {
+        if (size == templates.length) {
+            templates = Arrays.copyOf(templates, size * 2);
+            argStart = Arrays.copyOf(argStart, size * 2 + 1);
+        }
+        int at = argStart[size];
+        if (at + argCount > args.length) {
+            args = Arrays.copyOf(args, Math.max(args.length * 2, at + argCount));
+        }
+        return at;
+    }
+
+    private void commit(String template, int argEnd) {
+        templates[size] = template;
+        argStart[++size] = argEnd;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(templates, 0, size, null);
+        size = 0;
+    }
+
+    /** Entry i as text, with names resolved. */
+    public String line(int i) {
+        String template = templates[i];
+        int next = argStart[i];
+        StringBuilder sb = new StringBuilder(template.length() + 16);
+        for (int p = 0; p < template.length(); p++) {
+            char c = template.charAt(p);
+            if (c != '%' || p + 1 == template.length()) {
+                sb.append(c);
+                continue;
+            }
+            char kind = template.charAt(++p);
+            if (kind == 's') {
+                sb.append(NameTable.nameOf(args[next++]));
+            } else if (kind == 'd') {
+                sb.append(args[next++]);
+            } else {
+                sb.append(kind); // "%%"
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,136 @@
+package core.valor;
+
+/**
+ * Round-based timer wheel for timed effects (immunity, buffs, cooldowns, ...).
+ *
+ * Timers hash into a ring of slots by the round they expire in, kept as intrusive
+ * doubly linked lists. Each tick only walks the current slot, so advancing a round costs
+ * O(timers in that slot) however many effects are pending, and scheduling or cancelling
+ * is O(1). Timers further out than one lap share a slot with nearer ones and simply
+ * stay put until their round comes around.
+ */
+public final class TimerWheel {
+
+    /** Handle for a scheduled task; cancel it to drop the task before it fires. */
+    public static final class Timer {
+        private final Runnable task;
+        private final long deadline;
+        private Timer prev;
+        private Timer next;
+        private TimerWheel wheel; // null once fired or cancelled
+
+        private Timer(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        public boolean isPending() {
+            return wheel != null;
+        }
+
+        /** Rounds left before this timer fires (0 if it is no longer pending). */
+        public long remaining() {
+            return wheel == null ? 0 : deadline - wheel.now;
+        }
+
+        /** Remove the timer without running it. Returns false if it already fired or was cancelled. */
+        public boolean cancel() {
+            if (wheel == null) return false;
+            wheel.unlink(this);
+            return true;
+        }
+    }
+
+    private final Timer[] slots;
+    private final int mask;
+    private long now;
+    private int pending;
+
+    /** @param slotCount ring size, rounded up to a power of two */
+    public TimerWheel(int slotCount) {
+        int size = Integer.highestOneBit(Math.max(1, slotCount - 1)) << 1;
+        this.slots = new Timer[size];
+        this.mask = size - 1;
+    }
+
+    /** Current round (number of ticks so far). */
+    public long now() {
+        return now;
+    }
+
+    public int pending() {
+        return pending;
+    }
+
+    /** Run the task on the tick that is {@code rounds} ticks from now (rounds >= 1). */
+    public Timer schedule(int rounds, Runnable task) {
+        if (rounds < 1) {
+            throw new IllegalArgumentException("Timer must be at least one round away: " + rounds);
+        }
+        Timer timer = new Timer(task, now + rounds);
+        link(timer);
+        return timer;
+    }
+
+    /**
+     * Advance one round and run every task due in it. Tasks may schedule or cancel
+     * timers; all tasks due this round have already left the wheel when the first runs.
+     */
+    public void tick() {
+        now++;
+        int slot = (int) (now & mask);
+
+        // Split the slot into due timers and later laps before running anything.
+        Timer t = slots[slot];
+        slots[slot] = null;
+        Timer due = null;
+        while (t != null) {
+            Timer next = t.next;
+            if (t.deadline <= now) {
+                t.wheel = null;
+                pending--;
+                t.prev = null;
+                t.next = due;
+                due = t;
+            } else {
+                pushFront(slot, t);
+            }
+            t = next;
+        }
+
+        while (due != null) {
+            Timer next = due.next;
+            due.next = null;
+            due.task.run();
+            due = next;
+        }
+    }
+
+    private void link(Timer t) {
+        t.wheel = this;
+        pending++;
+        pushFront((int) (t.deadline & mask), t);
+    }
+
+    private void pushFront(int slot, Timer t) {
+        Timer head = slots[slot];
+        t.prev = null;
+        t.next = head;
+        if (head != null) head.prev = t;
+        slots[slot] = t;
+    }
+
+    private void unlink(Timer t) {
+        int slot = (int) (t.deadline & mask);
+        if (t.prev != null) {
+            t.prev.next = t.next;
+        } else {
+            slots[slot] = t.next;
+        }
+        if (t.next != null) t.next.prev = t.prev;
+        t.prev = null;
+        t.next = null;
+        t.wheel = null;
+        pending--;
+    }
+}
@@ -0,0 +1,90 @@
+package core.valor;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stable compact ids and board labels ("h1", "m3", ...) for the units of one kind.
+ *
+ * A unit gets an id when it enters play and keeps it until it is released; freed ids
+ * are handed out again lowest-first, so ids stay small. Labels are built once per id
+ * and shared, so nothing is rebuilt from round to round. Renderers read the labels
+ * through {@link #labels()}, which always reflects the current registrations.
+ */
+public final class UnitRegistry<T> {
+
+    private final String prefix;
+    private final List<String> labelsById = new ArrayList<String>();
+    private final List<T> unitsById = new ArrayList<T>(); // null = free slot
+    private final BitSet freeIds = new BitSet();
+
+    private final Map<T, Integer> ids = new IdentityHashMap<T, Integer>();
+    private final Map<T, String> labels = new IdentityHashMap<T, String>();
+    private final Map<T, String> labelView = Collections.unmodifiableMap(labels);
+
+    public UnitRegistry(String prefix, int expectedUnits) {
+        this.prefix = prefix;
+        for (int id = 0; id < expectedUnits; id++) {
+            labelsById.add(prefix + (id + 1));
+        }
+    }
+
+    /** Id for this unit, assigning the lowest free one if it has none yet. */
+    public int register(T unit) {
+        Integer known = ids.get(unit);
+        if (known != null) return known;
+
+        int id = freeIds.nextSetBit(0);
+        if (id < 0) {
+            id = unitsById.size();
+            unitsById.add(unit);
+        } else {
+            freeIds.clear(id);
+            unitsById.set(id, unit);
+        }
+        while (labelsById.size() <= id) {
+            labelsById.add(prefix + (labelsById.size() + 1));
+        }
+        ids.put(unit, id);
+        labels.put(unit, labelsById.get(id));
+        return id;
+    }
+
+    /** The unit left play; its id becomes free for the next one. */
+    public void release(T unit) {
+        Integer id = ids.remove(unit);
+        if (id == null) return;
+        labels.remove(unit);
+        unitsById.set(id, null);
+        freeIds.set(id);
+    }
+
+    /** Id of a registered unit, or -1. */
+    public int idOf(T unit) {
+        Integer id = ids.get(unit);
+        return id == null ? -1 : id;
+    }
+
+    /** Label of a registered unit, or null. */
+    public String labelOf(T unit) {
+        return labels.get(unit);
+    }
+
+    /** Unit holding this id, or null if the id is free or was never used. */
+    public T get(int id) {
+        return (id >= 0 && id < unitsById.size()) ? unitsById.get(id) : null;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    /** Live read-only unit -> label view, for renderers. */
+    public Map<T, String> labels() {
+        return labelView;
+    }
+}
@@ -13,7 +13,6 @@ import data.MonsterFactory;
 import io.InputHandler;
 import io.Renderer;
 import market.MarketController;
-import world.TileType;
 import world.World;
 import core.Position;
 
@@ -34,18 +33,24 @@ public class ValorContext {
     // State maps
     public final Map<Hero, Position> heroPositions = new HashMap<Hero, Position>();
     public final Map<Hero, Position> heroSpawnPositions = new HashMap<Hero, Position>();
-    public final Map<Hero, TileType> activeTerrainBuff = new HashMap<Hero, TileType>();
-    public final Map<Hero, int[]> terrainBuffDeltas = new HashMap<Hero, int[]>();
 
     public final List<Monster> monsters = new ArrayList<Monster>();
     public final Map<Monster, Position> monsterPositions = new HashMap<Monster, Position>();
-    public final Map<Monster, String> monsterCodes = new HashMap<Monster, String>();
+    public final MonsterPool monsterPool = new MonsterPool();
+
+    // Stable ids/labels, assigned when a unit enters play; the code maps are live views
+    public final UnitRegistry<Hero> heroIds = new UnitRegistry<Hero>("h", 3);
+    public final UnitRegistry<Monster> monsterIds = new UnitRegistry<Monster>("m", 16);
+    public final Map<Hero, String> heroCodes = heroIds.labels();
+    public final Map<Monster, String> monsterCodes = monsterIds.labels();
 
-    public final Map<Hero, String> heroCodes = new HashMap<Hero, String>();
     public final Map<Integer, Integer> laneMaxLevels = new HashMap<Integer, Integer>(); // laneIndex -> max hero level
-    public final Map<Hero, Integer> heroImmunityTurns = new HashMap<Hero, Integer>(); // remaining monster phases of immunity
+    public final Map<Hero, TimerWheel.Timer> heroImmunity = new HashMap<Hero, TimerWheel.Timer>(); // hero -> expiry timer
+
+    // Timed effects; ticks once per round, at the end of the monster phase
+    public final TimerWheel timers = new TimerWheel(64);
 
-    public final List<String> roundLog = new ArrayList<String>();
+    public final RoundLog roundLog = new RoundLog();
 
     public int roundCount = 1;
     public boolean gameOver = false;
@@ -67,24 +72,46 @@ public class ValorContext {
         this.monsterWavePeriod = monsterWavePeriod;
     }
 
-    public void log(String msg) {
-        if (roundLog != null) roundLog.add(msg);
+    /** Template placeholders: %s for a name, %d for a number, names first (see {@link RoundLog}). */
+    public void log(String template, String name) {
+        roundLog.add(template, name);
+    }
+
+    public void log(String template, String name1, String name2) {
+        roundLog.add(template, name1, name2);
+    }
+
+    public void log(String template, String name, int a, int b) {
+        roundLog.add(template, name, a, b);
+    }
+
+    public void log(String template, String name1, String name2, int a) {
+        roundLog.add(template, name1, name2, a);
+    }
+
+    public void log(String template, String name1, String name2, String name3, int a) {
+        roundLog.add(template, name1, name2, name3, a);
     }
 
-    public void grantHeroImmunity(Hero hero, int turns) {
+    /** Immune for the next {@code turns} monster phases (replaces any immunity already running). */
+    public void grantHeroImmunity(final Hero hero, int turns) {
         if (hero == null || turns <= 0) return;
-        heroImmunityTurns.put(hero, turns);
+        TimerWheel.Timer old = heroImmunity.get(hero);
+        if (old != null) old.cancel();
+        heroImmunity.put(hero, timers.schedule(turns, new Runnable() {
+            @Override
+            public void run() {
+                heroImmunity.remove(hero);
+            }
+        }));
     }
 
     public boolean isHeroImmune(Hero hero) {
-        Integer remaining = heroImmunityTurns.get(hero);
-        return remaining != null && remaining > 0;
+        return heroImmunity.containsKey(hero);
     }
 
-    public void tickHeroImmunity() {
-        for (Map.Entry<Hero, Integer> e : heroImmunityTurns.entrySet()) {
-            if (e.getValue() == null || e.getValue() <= 0) continue;
-            e.setValue(Math.max(0, e.getValue() - 1));
-        }
+    /** End of a monster phase: fire whatever expires now. */
+    public void tickTimers() {
+        timers.tick();
     }
 }
@@ -7,6 +7,8 @@ import java.util.Map;
 
 import characters.Hero;
 import characters.Monster;
+import characters.StatModifiers.Source;
+import characters.StatModifiers.Stat;
 import config.GameBalance;
 import core.Position;
 import items.Armor;
@@ -24,6 +26,9 @@ public final class ValorSupport {
 
     private ValorSupport() {}
 
+    // Monster Nexus columns per lane where new monsters appear (row 0)
+    private static final int[][] NEXUS_SPAWN_COLS = {{0,1},{3,4},{6,7}};
+
     // ============================================================
     // Setup
     // ============================================================
@@ -49,49 +54,68 @@ public final class ValorSupport {
     }
 
     public static void spawnInitialMonsters(ValorContext ctx) {
+        placeNewMonsters(ctx);
+    }
+
+    // One monster per lane on a free Monster Nexus tile; the pool supplies the objects.
+    private static void placeNewMonsters(ValorContext ctx) {
         int level = maxHeroLevel(ctx);
-        List<Monster> spawned = ctx.monsterFactory.spawnMonstersForBattle(3, level);
+        List<Monster> spawned = ctx.monsterPool.spawn(ctx.monsterFactory, 3, level);
 
-        int[][] laneCols = {{0,1},{3,4},{6,7}};
         int idx = 0;
 
-        for (int lane = 0; lane < laneCols.length && idx < spawned.size(); lane++) {
-            for (int c = 0; c < laneCols[lane].length && idx < spawned.size(); c++) {
-                int col = laneCols[lane][c];
-                Position pos = new Position(0, col);
+        for (int lane = 0; lane < NEXUS_SPAWN_COLS.length && idx < spawned.size(); lane++) {
+            for (int c = 0; c < NEXUS_SPAWN_COLS[lane].length && idx < spawned.size(); c++) {
+                int col = NEXUS_SPAWN_COLS[lane][c];
+                Position pos = ctx.monsterPool.position(0, col);
 
-                if (isOccupiedByMonster(ctx, pos)) continue;
+                if (isOccupiedByMonster(ctx, pos)) {
+                    ctx.monsterPool.releasePosition(pos);
+                    continue;
+                }
 
                 Monster m = spawned.get(idx++);
                 ctx.monsters.add(m);
                 ctx.monsterPositions.put(m, pos);
+                ctx.monsterIds.register(m);
                 break;
             }
         }
-        assignMonsterCodes(ctx);
+        // No free tile left for the rest: straight back to the pool
+        for (; idx < spawned.size(); idx++) {
+            ctx.monsterPool.release(spawned.get(idx), null);
+        }
     }
 
     // ============================================================
     // Codes / logging / UI
     // ============================================================
 
-    public static void logAction(ValorContext ctx, String msg) {
-        ctx.roundLog.add(msg);
+    /** Template placeholders: %s for a name, %d for a number, names first (see {@link RoundLog}). */
+    public static void logAction(ValorContext ctx, String template) {
+        ctx.roundLog.add(template);
     }
 
-    public static void assignHeroCodes(ValorContext ctx) {
-        ctx.heroCodes.clear();
-        int idx = 1;
-        for (Hero h : ctx.heroes) {
-            ctx.heroCodes.put(h, "h" + idx++);
-        }
+    public static void logAction(ValorContext ctx, String template, String name) {
+        ctx.roundLog.add(template, name);
     }
 
-    public static void assignMonsterCodes(ValorContext ctx) {
-        ctx.monsterCodes.clear();
-        int idx = 1;
-        for (Monster m : ctx.monsters) {
-            ctx.monsterCodes.put(m, "m" + idx++);
+    public static void logAction(ValorContext ctx, String template, String name1, String name2) {
+        ctx.roundLog.add(template, name1, name2);
+    }
+
+    public static void logAction(ValorContext ctx, String template, String name, int a, int b) {
+        ctx.roundLog.add(template, name, a, b);
+    }
+
+    public static void logAction(ValorContext ctx, String template, String name1, String name2, int a) {
+        ctx.roundLog.add(template, name1, name2, a);
+    }
+
+    // Once at setup: heroes keep h1, h2, ... (in party order) for the whole game
+    public static void assignHeroCodes(ValorContext ctx) {
+        for (Hero h : ctx.heroes) {
+            ctx.heroIds.register(h);
         }
     }
 
@@ -258,6 +282,48 @@ public final class ValorSupport {
             int cur = ctx.laneMaxLevels.containsKey(lane) ? ctx.laneMaxLevels.get(lane) : 0;
             if (h.getLevel() > cur) ctx.laneMaxLevels.put(lane, h.getLevel());
         }
+        prepareNexusMarkets(ctx);
+    }
+
+    // Have each lane's Nexus markets build stock for the lane level in the background,
+    // so opening the shop only swaps it in.
+    private static void prepareNexusMarkets(ValorContext ctx) {
+        for (Map.Entry<Integer, Integer> e : ctx.laneMaxLevels.entrySet()) {
+            prepareLaneMarkets(ctx, e.getKey(), e.getValue(), true);
+        }
+    }
+
+    /**
+     * A hero just levelled up. Lane levels still only change at the usual refresh
+     * points (setup, equipping), so nothing in play changes here; this only starts
+     * building, in the background, the stock the next refresh will ask for.
+     */
+    public static void prepareForLevelUp(ValorContext ctx, Hero hero) {
+        int lane = laneIndexForHero(ctx, hero);
+        if (lane < 0) return;
+        int upcoming = Math.max(getLaneMaxLevel(ctx, lane), hero.getLevel());
+        prepareLaneMarkets(ctx, lane, upcoming, false);
+    }
+
+    // createMissing: give markets-to-be a prepared market (only safe at a lane refresh,
+    // since its level is then what the shop will use).
+    private static void prepareLaneMarkets(ValorContext ctx, int lane, int laneLevel, boolean createMissing) {
+        Position[] nexus = ctx.world.getHeroNexusColumnsForLane(lane);
+        if (nexus == null) return;
+        for (Position p : nexus) {
+            Tile tile = ctx.world.getTile(p.getRow(), p.getCol());
+            if (!(tile instanceof MarketTile)) continue;
+            MarketTile mTile = (MarketTile) tile;
+            // Not a visit: evicted markets are restocked when reopened, and recency is left alone
+            if (!mTile.hasMarket()) {
+                if (createMissing) mTile.warmMarket(Market.prepare(laneLevel));
+                continue;
+            }
+            Market market = mTile.peekMarket();
+            if (market != null && laneLevel > market.getBaseLevel()) {
+                market.prepareRestock(laneLevel);
+            }
+        }
     }
 
     private static int getLaneMaxLevel(ValorContext ctx, int laneIndex) {
@@ -308,19 +374,19 @@ public final class ValorSupport {
                 case 1: {
                     boolean eqW = equipWeaponForHero(ctx, hero);
                     acted |= eqW;
-                    if (eqW) logAction(ctx, hero.getName() + " equipped a weapon.");
+                    if (eqW) logAction(ctx, "%s equipped a weapon.", hero.getName());
                     break;
                 }
                 case 2: {
                     boolean eqA = equipArmorForHero(ctx, hero);
                     acted |= eqA;
-                    if (eqA) logAction(ctx, hero.getName() + " equipped armor.");
+                    if (eqA) logAction(ctx, "%s equipped armor.", hero.getName());
                     break;
                 }
                 case 3: {
                     boolean used = usePotionForHero(ctx, hero);
                     acted |= used;
-                    if (used) logAction(ctx, hero.getName() + " used a potion.");
+                    if (used) logAction(ctx, "%s used a potion.", hero.getName());
                     break;
                 }
                 case 4:
@@ -361,7 +427,7 @@ public final class ValorSupport {
         applyTerrainEffects(ctx, hero, old, dest);
 
         ctx.renderer.renderMessage(hero.getName() + " recalls to their Hero Nexus.");
-        logAction(ctx, hero.getName() + " recalled to (" + dest.getRow() + ", " + dest.getCol() + ").");
+        logAction(ctx, "%s recalled to (%d, %d).", hero.getName(), dest.getRow(), dest.getCol());
         return true;
     }
 
@@ -386,19 +452,24 @@ public final class ValorSupport {
         int laneLevel = getLaneMaxLevel(ctx, lane);
 
         if (mTile.getMarket() == null) {
-            mTile.setMarket(new Market(ctx.itemFactory, laneLevel));
-        } else {
-            Market market = mTile.getMarket();
+            mTile.setMarket(new Market(laneLevel));
+        }
+
+        // Pinned while the hero shops, so it cannot be evicted mid-visit
+        Market market = mTile.acquireMarket();
+        try {
             if (laneLevel > market.getBaseLevel()) {
-                market.restock(ctx.itemFactory, laneLevel);
+                market.restock(laneLevel);
                 ctx.renderer.renderMessage("The market has refreshed its stock for your lane.");
             }
-        }
 
-        List<Hero> singleHeroList = new ArrayList<Hero>();
-        singleHeroList.add(hero);
-        ctx.marketController.openMarket(mTile.getMarket(), singleHeroList);
-        logAction(ctx, hero.getName() + " opened the market.");
+            List<Hero> singleHeroList = new ArrayList<Hero>();
+            singleHeroList.add(hero);
+            ctx.marketController.openMarket(market, singleHeroList);
+        } finally {
+            mTile.releaseMarket();
+        }
+        logAction(ctx, "%s opened the market.", hero.getName());
     }
 
     public static boolean handleTeleport(ValorContext ctx, Hero hero) {
@@ -487,7 +558,7 @@ public final class ValorSupport {
         applyTerrainEffects(ctx, hero, heroPos, dest);
 
         ctx.renderer.renderMessage(hero.getName() + " teleports to (" + dest.getRow() + ", " + dest.getCol() + ")");
-        logAction(ctx, hero.getName() + " teleported to (" + dest.getRow() + ", " + dest.getCol() + ").");
+        logAction(ctx, "%s teleported to (%d, %d).", hero.getName(), dest.getRow(), dest.getCol());
         return true;
     }
 
@@ -511,7 +582,7 @@ public final class ValorSupport {
 
         ctx.world.setTile(targetRow, targetCol, new CommonTile(TileType.COMMON));
         ctx.renderer.renderMessage(hero.getName() + " cleared the obstacle ahead.");
-        logAction(ctx, hero.getName() + " cleared an obstacle at (" + targetRow + ", " + targetCol + ").");
+        logAction(ctx, "%s cleared an obstacle at (%d, %d).", hero.getName(), targetRow, targetCol);
         return true;
     }
 
@@ -545,8 +616,7 @@ public final class ValorSupport {
                     ctx.monsterPositions.put(monster, dest);
                     ctx.renderer.renderMessage(monster.getName() +
                             " moves to (" + newRow + ", " + newCol + ").");
-                    logAction(ctx, monster.getName() +
-                            " moves to (" + newRow + ", " + newCol + ").");
+                    logAction(ctx, "%s moves to (%d, %d).", monster.getName(), newRow, newCol);
                 }
             }
 
@@ -573,8 +643,7 @@ public final class ValorSupport {
         if (target.tryDodge()) {
             ctx.renderer.renderMessage(target.getName() +
                     " dodged the attack from " + monster.getName() + "!");
-            logAction(ctx, target.getName() +
-                    " dodged the attack from " + monster.getName() + ".");
+            logAction(ctx, "%s dodged the attack from %s.", target.getName(), monster.getName());
             return;
         }
 
@@ -582,9 +651,7 @@ public final class ValorSupport {
         ctx.renderer.renderMessage(monster.getName() +
                 " attacked " + target.getName() +
                 " for " + reduced + " damage.");
-        logAction(ctx, monster.getName() +
-                " attacked " + target.getName() +
-                " for " + reduced + " damage.");
+        logAction(ctx, "%s attacked %s for %d damage.", monster.getName(), target.getName(), reduced);
 
         if (target.isFainted()) {
             ctx.renderer.renderMessage(target.getName() + " has fallen in this round.");
@@ -601,8 +668,9 @@ public final class ValorSupport {
             Monster m = it.next();
             if (m.isFainted()) {
                 it.remove();
-                ctx.monsterPositions.remove(m);
-                ctx.monsterCodes.remove(m);
+                Position pos = ctx.monsterPositions.remove(m);
+                ctx.monsterIds.release(m);
+                ctx.monsterPool.release(m, pos);
             }
         }
     }
@@ -627,7 +695,7 @@ public final class ValorSupport {
                 h.heal(h.getMaxHP());
                 h.restoreMana(h.getMaxMana());
                 ctx.renderer.renderMessage(h.getName() + " is revived at their Hero Nexus!");
-                logAction(ctx, h.getName() + " is revived at their Hero Nexus.");
+                logAction(ctx, "%s is revived at their Hero Nexus.", h.getName());
             }
         }
 
@@ -651,8 +719,8 @@ public final class ValorSupport {
         ctx.renderer.renderMessage("------------------------------------------------------------");
         ctx.renderer.renderMessage("Round Info");
         ctx.renderer.renderMessage("------------------------------------------------------------");
-        for (String line : ctx.roundLog) {
-            ctx.renderer.renderMessage(line);
+        for (int i = 0; i < ctx.roundLog.size(); i++) {
+            ctx.renderer.renderMessage(ctx.roundLog.line(i));
         }
         ctx.renderer.renderMessage("------------------------------------------------------------");
 
@@ -695,27 +763,7 @@ public final class ValorSupport {
 
     private static void spawnMonsterWave(ValorContext ctx) {
         ctx.renderer.renderMessage("A new wave of monsters appears!");
-
-        int level = maxHeroLevel(ctx);
-        List<Monster> spawned = ctx.monsterFactory.spawnMonstersForBattle(3, level);
-
-        int[][] laneCols = {{0,1},{3,4},{6,7}};
-        int idx = 0;
-
-        for (int lane = 0; lane < laneCols.length && idx < spawned.size(); lane++) {
-            for (int c = 0; c < laneCols[lane].length && idx < spawned.size(); c++) {
-                int col = laneCols[lane][c];
-                Position nexusPos = new Position(0, col);
-
-                if (isOccupiedByMonster(ctx, nexusPos)) continue;
-
-                Monster m = spawned.get(idx++);
-                ctx.monsters.add(m);
-                ctx.monsterPositions.put(m, nexusPos);
-                break;
-            }
-        }
-        assignMonsterCodes(ctx);
+        placeNewMonsters(ctx);
     }
 
     // ============================================================
@@ -731,18 +779,15 @@ public final class ValorSupport {
         ctx.renderer.renderMessage(hero.getName() + "'s inventory:");
         for (int i = 0; i < items.size(); i++) {
             Item it = items.get(i);
+            int count = hero.getInventory().getCount(it);
             ctx.renderer.renderMessage("  " + (i + 1) + ") " +
-                    it.getName() + " (Lv " + it.getRequiredLevel() +
+                    it.getName() + (count > 1 ? " x" + count : "") + " (Lv " + it.getRequiredLevel() +
                     ", Price " + it.getPrice() + ")");
         }
     }
 
     private static boolean equipWeaponForHero(ValorContext ctx, Hero hero) {
-        List<Item> items = hero.getInventory().getItems();
-        List<Weapon> weapons = new ArrayList<Weapon>();
-        for (Item item : items) {
-            if (item instanceof Weapon) weapons.add((Weapon) item);
-        }
+        List<Weapon> weapons = hero.getInventory().getWeapons();
         if (weapons.isEmpty()) {
             ctx.renderer.renderMessage("No weapons available to equip.");
             return false;
@@ -794,11 +839,7 @@ public final class ValorSupport {
     }
 
     private static boolean equipArmorForHero(ValorContext ctx, Hero hero) {
-        List<Item> items = hero.getInventory().getItems();
-        List<Armor> armors = new ArrayList<Armor>();
-        for (Item item : items) {
-            if (item instanceof Armor) armors.add((Armor) item);
-        }
+        List<Armor> armors = hero.getInventory().getArmors();
         if (armors.isEmpty()) {
             ctx.renderer.renderMessage("No armor available to equip.");
             return false;
@@ -835,11 +876,7 @@ public final class ValorSupport {
     }
 
     private static boolean usePotionForHero(ValorContext ctx, Hero hero) {
-        List<Item> items = hero.getInventory().getItems();
-        List<Potion> potions = new ArrayList<Potion>();
-        for (Item item : items) {
-            if (item instanceof Potion) potions.add((Potion) item);
-        }
+        List<Potion> potions = hero.getInventory().getPotions();
         if (potions.isEmpty()) {
             ctx.renderer.renderMessage("No potions available.");
             return false;
@@ -848,7 +885,8 @@ public final class ValorSupport {
         ctx.renderer.renderMessage("Choose a potion to use:");
         for (int i = 0; i < potions.size(); i++) {
             Potion p = potions.get(i);
-            ctx.renderer.renderMessage("  " + (i + 1) + ") " + p.getName() +
+            int count = hero.getInventory().getCount(p);
+            ctx.renderer.renderMessage("  " + (i + 1) + ") " + p.getName() + (count > 1 ? " x" + count : "") +
                     " (Effect " + p.getAmount() +
                     " on " + p.getStatType() +
                     ", Req Lv " + p.getRequiredLevel() + ")");
@@ -880,41 +918,25 @@ public final class ValorSupport {
     // Terrain effects
     // ============================================================
 
-    private static void clearTerrainEffects(ValorContext ctx, Hero hero) {
-        TileType prevType = ctx.activeTerrainBuff.remove(hero);
-        int[] delta = ctx.terrainBuffDeltas.remove(hero);
-        if (prevType != null && delta != null) {
-            hero.adjustStrength(-delta[0]);
-            hero.adjustDexterity(-delta[1]);
-            hero.adjustAgility(-delta[2]);
-        }
-    }
-
+    // The bonus is a TERRAIN modifier on the hero; replacing it on every move leaves
+    // base stats untouched, so nothing has to be remembered to undo it.
     public static void applyTerrainEffects(ValorContext ctx, Hero hero, Position from, Position to) {
-        clearTerrainEffects(ctx, hero);
+        hero.clearModifiers(Source.TERRAIN);
         if (to == null) return;
 
         TileType type = ctx.world.getTile(to.getRow(), to.getCol()).getType();
-        int str = 0, dex = 0, agi = 0;
-
         switch (type) {
             case BUSH:
-                dex = Math.max(1, hero.getDexterity() / 10);
-                hero.adjustDexterity(dex);
+                hero.setModifier(Source.TERRAIN, Stat.DEXTERITY, Math.max(1, hero.getDexterity() / 10), 0);
                 break;
             case CAVE:
-                agi = Math.max(1, hero.getAgility() / 10);
-                hero.adjustAgility(agi);
+                hero.setModifier(Source.TERRAIN, Stat.AGILITY, Math.max(1, hero.getAgility() / 10), 0);
                 break;
             case KOULOU:
-                str = Math.max(1, hero.getStrength() / 10);
-                hero.adjustStrength(str);
+                hero.setModifier(Source.TERRAIN, Stat.STRENGTH, Math.max(1, hero.getStrength() / 10), 0);
                 break;
             default:
-                return;
+                break;
         }
-
-        ctx.activeTerrainBuff.put(hero, type);
-        ctx.terrainBuffDeltas.put(hero, new int[]{str, dex, agi});
     }
 }
@@ -8,7 +8,7 @@ import characters.Monster;
 import config.GameBalance;
 import core.Position;
 import core.valor.ValorContext;
-import items.Item;
+import core.valor.ValorSupport;
 import items.Spell;
 
 public class HeroCombatService {
@@ -57,17 +57,19 @@ public class HeroCombatService {
 
         ctx.renderer.renderMessage(hero.getName() + " attacked " + target.getName()
                 + " for " + effective + " damage.");
-        ctx.log(hero.getName() + " attacked " + target.getName() + " for " + effective + " damage.");
+        ctx.log("%s attacked %s for %d damage.", hero.getName(), target.getName(), effective);
 
         if (target.isFainted()) {
             ctx.renderer.renderMessage(target.getName() + " has been defeated!");
             int xp = target.getLevel() * GameBalance.XP_PER_MONSTER_LEVEL_VALOR;
             int gold = target.getLevel() * 500;
+            int levelBefore = hero.getLevel();
             hero.gainExperience(xp);
             hero.addGold(gold);
+            if (hero.getLevel() > levelBefore) ValorSupport.prepareForLevelUp(ctx, hero);
             ctx.renderer.renderMessage(hero.getName() + " gains " + xp + " XP and " + gold + " gold.");
-            ctx.log(target.getName() + " has been defeated.");
-            ctx.log(hero.getName() + " gains " + xp + " XP and " + gold + " gold.");
+            ctx.log("%s has been defeated.", target.getName());
+            ctx.log("%s gains %d XP and %d gold.", hero.getName(), xp, gold);
         }
 
         return true;
@@ -77,9 +79,7 @@ public class HeroCombatService {
         Position heroPos = ctx.heroPositions.get(hero);
         if (heroPos == null) return false;
 
-        List<Item> items = hero.getInventory().getItems();
-        List<Spell> spells = new ArrayList<Spell>();
-        for (Item it : items) if (it instanceof Spell) spells.add((Spell) it);
+        List<Spell> spells = hero.getInventory().getSpells();
 
         if (spells.isEmpty()) {
             ctx.renderer.renderMessage(hero.getName() + " has no spells.");
@@ -90,7 +90,8 @@ public class HeroCombatService {
         for (int i = 0; i < spells.size(); i++) {
             Spell s = spells.get(i);
             String effect = (s.getEffect() != null) ? s.getEffect().describe() : "";
-            ctx.renderer.renderMessage("  " + (i + 1) + ") " + s.getName()
+            int count = hero.getInventory().getCount(s);
+            ctx.renderer.renderMessage("  " + (i + 1) + ") " + s.getName() + (count > 1 ? " x" + count : "")
                     + " | Dmg: " + s.getBaseDamage()
                     + " | MP: " + s.getManaCost()
                     + (effect.isEmpty() ? "" : " | Effect: " + effect));
@@ -151,18 +152,20 @@ public class HeroCombatService {
 
         ctx.renderer.renderMessage(hero.getName() + " casts " + spell.getName()
                 + " on " + target.getName() + " for " + effective + " damage.");
-        ctx.log(hero.getName() + " casts " + spell.getName()
-                + " on " + target.getName() + " for " + effective + " damage.");
+        ctx.log("%s casts %s on %s for %d damage.",
+                hero.getName(), spell.getName(), target.getName(), effective);
 
         if (target.isFainted()) {
             ctx.renderer.renderMessage(target.getName() + " has been defeated!");
             int xp = target.getLevel() * GameBalance.XP_PER_MONSTER_LEVEL_VALOR;
             int gold = target.getLevel() * 500;
+            int levelBefore = hero.getLevel();
             hero.gainExperience(xp);
             hero.addGold(gold);
+            if (hero.getLevel() > levelBefore) ValorSupport.prepareForLevelUp(ctx, hero);
             ctx.renderer.renderMessage(hero.getName() + " gains " + xp + " XP and " + gold + " gold.");
-            ctx.log(target.getName() + " has been defeated.");
-            ctx.log(hero.getName() + " gains " + xp + " XP and " + gold + " gold.");
+            ctx.log("%s has been defeated.", target.getName());
+            ctx.log("%s gains %d XP and %d gold.", hero.getName(), xp, gold);
         }
 
         return true;
@@ -1,6 +1,5 @@
 package core.valor.services;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import characters.Hero;
@@ -47,15 +46,14 @@ public class HeroInventoryService {
         ctx.renderer.renderMessage(hero.getName() + "'s inventory:");
         for (int i = 0; i < items.size(); i++) {
             Item it = items.get(i);
-            ctx.renderer.renderMessage("  " + (i + 1) + ") " + it.getName()
+            int count = hero.getInventory().getCount(it);
+            ctx.renderer.renderMessage("  " + (i + 1) + ") " + it.getName() + (count > 1 ? " x" + count : "")
                     + " (Lv " + it.getRequiredLevel() + ", Price " + it.getPrice() + ")");
         }
     }
 
     private boolean equipWeapon(ValorContext ctx, Hero hero) {
-        List<Item> items = hero.getInventory().getItems();
-        List<Weapon> weapons = new ArrayList<Weapon>();
-        for (Item item : items) if (item instanceof Weapon) weapons.add((Weapon) item);
+        List<Weapon> weapons = hero.getInventory().getWeapons();
 
         if (weapons.isEmpty()) {
             ctx.renderer.renderMessage("No weapons available to equip.");
@@ -107,9 +105,7 @@ public class HeroInventoryService {
     }
 
     private boolean equipArmor(ValorContext ctx, Hero hero) {
-        List<Item> items = hero.getInventory().getItems();
-        List<Armor> armors = new ArrayList<Armor>();
-        for (Item item : items) if (item instanceof Armor) armors.add((Armor) item);
+        List<Armor> armors = hero.getInventory().getArmors();
 
         if (armors.isEmpty()) {
             ctx.renderer.renderMessage("No armor available to equip.");
@@ -146,9 +142,7 @@ public class HeroInventoryService {
     }
 
     private boolean usePotion(ValorContext ctx, Hero hero) {
-        List<Item> items = hero.getInventory().getItems();
-        List<Potion> potions = new ArrayList<Potion>();
-        for (Item item : items) if (item instanceof Potion) potions.add((Potion) item);
+        List<Potion> potions = hero.getInventory().getPotions();
 
         if (potions.isEmpty()) {
             ctx.renderer.renderMessage("No potions available.");
@@ -158,7 +152,8 @@ public class HeroInventoryService {
         ctx.renderer.renderMessage("Choose a potion to use:");
         for (int i = 0; i < potions.size(); i++) {
             Potion p = potions.get(i);
-            ctx.renderer.renderMessage("  " + (i + 1) + ") " + p.getName()
+            int count = hero.getInventory().getCount(p);
+            ctx.renderer.renderMessage("  " + (i + 1) + ") " + p.getName() + (count > 1 ? " x" + count : "")
                     + " (Effect " + p.getAmount()
                     + " on " + p.getStatType()
                     + ", Req Lv " + p.getRequiredLevel() + ")");
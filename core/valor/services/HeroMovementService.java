@@ -63,7 +63,7 @@ public class HeroMovementService {
         ctx.heroPositions.put(hero, dest);
         terrain.apply(ctx, hero, dest);
         ctx.renderer.renderMessage(hero.getName() + " moved to (" + newRow + ", " + newCol + ").");
-        ctx.log(hero.getName() + " moved to (" + newRow + ", " + newCol + ").");
+        ctx.log("%s moved to (%d, %d).", hero.getName(), newRow, newCol);
         return true;
     }
 
@@ -88,7 +88,7 @@ public class HeroMovementService {
         ctx.heroPositions.put(hero, new Position(dest.getRow(), dest.getCol()));
         terrain.apply(ctx, hero, dest);
         ctx.renderer.renderMessage(hero.getName() + " recalls to their Hero Nexus.");
-        ctx.log(hero.getName() + " recalls to their Hero Nexus.");
+        ctx.log("%s recalls to their Hero Nexus.", hero.getName());
         return true;
     }
 
@@ -183,7 +183,7 @@ public class HeroMovementService {
         ctx.heroPositions.put(hero, dest);
         terrain.apply(ctx, hero, dest);
         ctx.renderer.renderMessage(hero.getName() + " teleports to (" + dest.getRow() + ", " + dest.getCol() + ")");
-        ctx.log(hero.getName() + " teleported to (" + dest.getRow() + ", " + dest.getCol() + ").");
+        ctx.log("%s teleported to (%d, %d).", hero.getName(), dest.getRow(), dest.getCol());
         return true;
     }
 
@@ -207,7 +207,7 @@ public class HeroMovementService {
 
         ctx.world.setTile(targetRow, targetCol, new CommonTile(TileType.COMMON));
         ctx.renderer.renderMessage(hero.getName() + " cleared the obstacle ahead.");
-        ctx.log(hero.getName() + " cleared the obstacle at (" + targetRow + ", " + targetCol + ").");
+        ctx.log("%s cleared the obstacle at (%d, %d).", hero.getName(), targetRow, targetCol);
         return true;
     }
 
@@ -266,7 +266,7 @@ public class HeroMovementService {
                 ctx.renderer.renderMessage(advanced.getName() + " advances to (" + mp.getRow() + ", " + mp.getCol() + ").");
             }
         }
-        ctx.log(hero.getName() + " retreated to (" + dest.getRow() + ", " + dest.getCol() + ") and gained immunity.");
+        ctx.log("%s retreated to (%d, %d) and gained immunity.", hero.getName(), dest.getRow(), dest.getCol());
         return true;
     }
 
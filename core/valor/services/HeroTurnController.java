@@ -18,8 +18,6 @@ public class HeroTurnController {
     private final MarketSystem market = new MarketSystem();
 
     public void takeTurns(ValorContext ctx) {
-        assignHeroCodes(ctx);
-
         for (Hero hero : ctx.heroes) {
             if (hero.isFainted()) continue;
             if (!ctx.heroPositions.containsKey(hero)) continue;
@@ -64,12 +62,4 @@ public class HeroTurnController {
     private void renderMenu(ValorContext ctx, Hero hero, boolean showBoard) {
         ValorSupport.renderHeroTurnMenu(ctx, hero, showBoard);
     }
-
-    private void assignHeroCodes(ValorContext ctx) {
-        ctx.heroCodes.clear();
-        int idx = 1;
-        for (Hero h : ctx.heroes) {
-            ctx.heroCodes.put(h, "h" + idx++);
-        }
-    }
 }
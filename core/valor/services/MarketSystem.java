@@ -34,18 +34,23 @@ public class MarketSystem {
         int laneLevel = getLaneMaxLevel(ctx, lane);
 
         if (mTile.getMarket() == null) {
-            mTile.setMarket(new Market(ctx.itemFactory, laneLevel));
-        } else {
-            Market market = mTile.getMarket();
+            mTile.setMarket(new Market(laneLevel));
+        }
+
+        // Pinned while the hero shops, so it cannot be evicted mid-visit
+        Market market = mTile.acquireMarket();
+        try {
             if (laneLevel > market.getBaseLevel()) {
-                market.restock(ctx.itemFactory, laneLevel);
+                market.restock(laneLevel);
                 ctx.renderer.renderMessage("The market has refreshed its stock for your lane.");
             }
-        }
 
-        List<Hero> single = new ArrayList<Hero>();
-        single.add(hero);
-        ctx.marketController.openMarket(mTile.getMarket(), single);
+            List<Hero> single = new ArrayList<Hero>();
+            single.add(hero);
+            ctx.marketController.openMarket(market, single);
+        } finally {
+            mTile.releaseMarket();
+        }
     }
 
     private int laneIndexForHero(ValorContext ctx, Hero hero) {
@@ -43,7 +43,7 @@ public class MonsterSystem {
             if (step != null && canMoveTo(ctx, monster, start, step)) {
                 ctx.monsterPositions.put(monster, step);
                 ctx.renderer.renderMessage(monster.getName() + " moves to (" + step.getRow() + ", " + step.getCol() + ").");
-                ctx.log(monster.getName() + " moved to (" + step.getRow() + ", " + step.getCol() + ").");
+                ctx.log("%s moved to (%d, %d).", monster.getName(), step.getRow(), step.getCol());
 
                 continue;
             }
@@ -53,7 +53,7 @@ public class MonsterSystem {
             if (canMoveTo(ctx, monster, start, down)) {
                 ctx.monsterPositions.put(monster, down);
                 ctx.renderer.renderMessage(monster.getName() + " moves to (" + down.getRow() + ", " + down.getCol() + ").");
-                ctx.log(monster.getName() + " moves to (" + down.getRow() + ", " + down.getCol() + ").");
+                ctx.log("%s moves to (%d, %d).", monster.getName(), down.getRow(), down.getCol());
 
                 continue;
             }
@@ -63,7 +63,7 @@ public class MonsterSystem {
             if (canMoveTo(ctx, monster, start, left) && ctx.world.sameLane(start, left)) {
                 ctx.monsterPositions.put(monster, left);
                 ctx.renderer.renderMessage(monster.getName() + " sidesteps to (" + left.getRow() + ", " + left.getCol() + ").");
-                ctx.log(monster.getName() + " sidestepped to (" + left.getRow() + ", " + left.getCol() + ").");
+                ctx.log("%s sidestepped to (%d, %d).", monster.getName(), left.getRow(), left.getCol());
                 continue;
             }
 
@@ -71,14 +71,14 @@ public class MonsterSystem {
             if (canMoveTo(ctx, monster, start, right) && ctx.world.sameLane(start, right)) {
                 ctx.monsterPositions.put(monster, right);
                 ctx.renderer.renderMessage(monster.getName() + " sidesteps to (" + right.getRow() + ", " + right.getCol() + ").");
-                ctx.log(monster.getName() + " sidestepped to (" + right.getRow() + ", " + right.getCol() + ").");
+                ctx.log("%s sidestepped to (%d, %d).", monster.getName(), right.getRow(), right.getCol());
                 continue;
             }
 
             // else: stuck
         }
 
-        ctx.tickHeroImmunity();
+        ctx.tickTimers();
     }
 
     private boolean canMoveTo(ValorContext ctx, Monster monster, Position from, Position to) {
@@ -105,7 +105,7 @@ public class MonsterSystem {
     private void attack(ValorContext ctx, Monster monster, Hero target) {
         if (ctx.isHeroImmune(target)) {
             ctx.renderer.renderMessage(target.getName() + " is immune this turn and ignores " + monster.getName() + "'s attack.");
-            ctx.log(target.getName() + " ignored the attack from " + monster.getName() + " due to immunity.");
+            ctx.log("%s ignored the attack from %s due to immunity.", target.getName(), monster.getName());
             return;
         }
 
@@ -115,13 +115,13 @@ public class MonsterSystem {
 
         if (target.tryDodge()) {
             ctx.renderer.renderMessage(target.getName() + " dodged the attack from " + monster.getName() + "!");
-            ctx.log(target.getName() + " dodged the attack from " + monster.getName() + ".");
+            ctx.log("%s dodged the attack from %s.", target.getName(), monster.getName());
             return;
         }
 
         target.takeDamage(reduced);
         ctx.renderer.renderMessage(monster.getName() + " attacked " + target.getName() + " for " + reduced + " damage.");
-        ctx.log(monster.getName() + " attacked " + target.getName() + " for " + reduced + " damage.");
+        ctx.log("%s attacked %s for %d damage.", monster.getName(), target.getName(), reduced);
 
     }
 
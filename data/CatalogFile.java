@@ -0,0 +1,75 @@
+package data;
+
+import java.io.File;
+
+/**
+ * Every catalog text file under Legends_Monsters_and_Heroes/, with its row shape.
+ *
+ * A row is: a name, then intColumns integers, then (only if hasTail) free text
+ * that may contain spaces, e.g. the "attribute affected" column of Potions.txt.
+ * The first line of each file is a header and is skipped.
+ */
+enum CatalogFile {
+    // Name/cost/required level/damage reduction
+    ARMORY("Armory.txt", 3, false),
+    // Name/cost/level/damage/required hands
+    WEAPONRY("Weaponry.txt", 4, false),
+    // Name/cost/required level/attribute increase/attribute affected
+    POTIONS("Potions.txt", 3, true),
+    // Name/cost/required level/damage/mana cost
+    FIRE_SPELLS("FireSpells.txt", 4, false),
+    ICE_SPELLS("IceSpells.txt", 4, false),
+    LIGHTNING_SPELLS("LightningSpells.txt", 4, false),
+    // Name/level/damage/defense/dodge chance
+    DRAGONS("Dragons.txt", 4, false),
+    EXOSKELETONS("Exoskeletons.txt", 4, false),
+    SPIRITS("Spirits.txt", 4, false),
+    // Name/mana/strength/agility/dexterity/starting money/starting experience
+    WARRIORS("Warriors.txt", 6, false),
+    PALADINS("Paladins.txt", 6, false),
+    SORCERERS("Sorcerers.txt", 6, false);
+
+    // Folder where your text files live (relative to project root / working dir)
+    static final String DATA_DIR = "Legends_Monsters_and_Heroes/";
+
+    final String fileName;
+    final String path;
+    final int intColumns;
+    final boolean hasTail;
+
+    CatalogFile(String fileName, int intColumns, boolean hasTail) {
+        this.fileName = fileName;
+        this.path = DATA_DIR + fileName;
+        this.intColumns = intColumns;
+        this.hasTail = hasTail;
+    }
+
+    File file() {
+        return new File(path);
+    }
+
+    static CatalogFile forFileName(String fileName) {
+        for (CatalogFile f : values()) {
+            if (f.fileName.equals(fileName)) return f;
+        }
+        return null;
+    }
+
+    boolean isItemFile() {
+        return this == ARMORY || this == WEAPONRY || this == POTIONS
+                || this == FIRE_SPELLS || this == ICE_SPELLS || this == LIGHTNING_SPELLS;
+    }
+
+    boolean isMonsterFile() {
+        return this == DRAGONS || this == EXOSKELETONS || this == SPIRITS;
+    }
+
+    boolean isHeroFile() {
+        return this == WARRIORS || this == PALADINS || this == SORCERERS;
+    }
+
+    /** Fewest whitespace-separated tokens a data line needs to be accepted. */
+    int minTokens() {
+        return 1 + intColumns + (hasTail ? 1 : 0);
+    }
+}
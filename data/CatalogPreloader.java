@@ -0,0 +1,94 @@
+package data;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reads every catalog file in parallel in the background, as early as possible
+ * (GameLauncher starts it before the first prompt).
+ *
+ * Nothing waits on the preload up front: when a factory first needs a file,
+ * CatalogReader picks up that file's finished rows, or blocks only until that one
+ * file is done. Files that were never preloaded are simply read on demand.
+ */
+public final class CatalogPreloader {
+
+    private static final AtomicBoolean started = new AtomicBoolean(false);
+    private static final Map<CatalogFile, Future<CatalogRows>> pending =
+            new ConcurrentHashMap<CatalogFile, Future<CatalogRows>>();
+
+    private CatalogPreloader() {}
+
+    public static void start() {
+        if (!started.compareAndSet(false, true)) return;
+
+        CatalogFile[] files = CatalogFile.values();
+        ExecutorService pool = Executors.newFixedThreadPool(files.length, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "catalog-preload");
+                t.setDaemon(true); // never keep the JVM alive for a preload
+                return t;
+            }
+        });
+
+        for (final CatalogFile file : files) {
+            pending.put(file, pool.submit(new Callable<CatalogRows>() {
+                @Override
+                public CatalogRows call() {
+                    CatalogRows rows = new CatalogRows(file);
+                    CatalogReader.readDirect(file, rows);
+                    return rows;
+                }
+            }));
+        }
+        pool.shutdown(); // threads exit once their file is read
+    }
+
+    /**
+     * Drop a file's preload (the file changed on disk, so those rows are out of date).
+     */
+    static void discard(CatalogFile file) {
+        Future<CatalogRows> future = pending.remove(file);
+        if (future != null) future.cancel(false);
+    }
+
+    /**
+     * Queue rows that were already read (and checked) for the next load of the file,
+     * replacing any preload of it.
+     */
+    static void stage(CatalogFile file, CatalogRows rows) {
+        FutureTask<CatalogRows> done = new FutureTask<CatalogRows>(new Runnable() {
+            @Override
+            public void run() {}
+        }, rows);
+        done.run();
+        Future<CatalogRows> previous = pending.put(file, done);
+        if (previous != null) previous.cancel(false);
+    }
+
+    /**
+     * Hand over the preloaded rows of a file, waiting for them if still in flight.
+     * Each file is handed over once; returns null if it was not (or could not be) preloaded.
+     */
+    static CatalogRows take(CatalogFile file) {
+        Future<CatalogRows> future = pending.remove(file);
+        if (future == null) return null;
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null; // the caller reads the file itself and reports any error
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package data;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Single entry point the factories use to read a catalog file.
+ * Rows come from the background preload if one was started, else from the compiled
+ * data pack when it is up to date for that file, otherwise the text file is parsed directly.
+ * Whatever the source, row names are registered in the {@link NameTable} on the way through.
+ */
+final class CatalogReader {
+
+    private CatalogReader() {}
+
+    static void read(CatalogFile file, final CatalogRowHandler target) {
+        CatalogRowHandler handler = new CatalogRowHandler() {
+            @Override
+            public void row(String name, int[] fields, String tail) {
+                target.row(NameTable.canonical(name), fields, tail);
+            }
+        };
+        CatalogRows preloaded = CatalogPreloader.take(file);
+        if (preloaded != null) {
+            preloaded.replay(handler);
+            return;
+        }
+        readDirect(file, handler);
+    }
+
+    static void readDirect(CatalogFile file, CatalogRowHandler handler) {
+        DataPack pack = DataPack.getShared();
+        if (pack != null && pack.read(file, handler)) {
+            return;
+        }
+        readText(file, handler);
+    }
+
+    static void readText(CatalogFile file, CatalogRowHandler handler) {
+        try (InputStream in = new FileInputStream(file.path)) {
+            CatalogTokenizer.parse(file, in, handler);
+        } catch (IOException e) {
+            System.err.println("Could not load catalog file " + file.path);
+            e.printStackTrace();
+        }
+    }
+}
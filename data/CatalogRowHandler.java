@@ -0,0 +1,13 @@
+package data;
+
+/**
+ * Receives the rows of one catalog file, whichever source (text or data pack) they come from.
+ */
+interface CatalogRowHandler {
+    /**
+     * @param name   first column
+     * @param fields the integer columns, in file order (only valid during the call)
+     * @param tail   trailing free text, or null if the file has none
+     */
+    void row(String name, int[] fields, String tail);
+}
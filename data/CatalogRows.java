@@ -0,0 +1,47 @@
+package data;
+
+import java.util.Arrays;
+
+/**
+ * Rows of one catalog file held in memory, so they can be parsed on one thread
+ * and replayed into a handler on another.
+ */
+final class CatalogRows implements CatalogRowHandler {
+
+    private final int intColumns;
+    private String[] names = new String[16];
+    private String[] tails = new String[16];
+    private int[] ints;
+    private int size;
+
+    CatalogRows(CatalogFile file) {
+        this.intColumns = file.intColumns;
+        this.ints = new int[16 * intColumns];
+    }
+
+    @Override
+    public void row(String name, int[] fields, String tail) {
+        if (size == names.length) {
+            int capacity = size * 2;
+            names = Arrays.copyOf(names, capacity);
+            tails = Arrays.copyOf(tails, capacity);
+            ints = Arrays.copyOf(ints, capacity * intColumns);
+        }
+        names[size] = name;
+        tails[size] = tail;
+        System.arraycopy(fields, 0, ints, size * intColumns, intColumns);
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void replay(CatalogRowHandler handler) {
+        int[] fields = new int[intColumns];
+        for (int r = 0; r < size; r++) {
+            System.arraycopy(ints, r * intColumns, fields, 0, intColumns);
+            handler.row(names[r], fields, tails[r]);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming byte-level parser for catalog text files.
+ *
+ * Reads through one fixed buffer, parses the integer columns in place and only
+ * creates Strings for the name (and the trailing text, for files that have one)
+ * of rows it actually hands out. Lines are whitespace-separated exactly like the
+ * old split("\\s+") parsing: the first line is a header, blank lines and lines
+ * with too few columns are skipped, extra columns are ignored. As before, a malformed
+ * number only fails the load on a row that has all its columns; a short row (a note,
+ * say) is skipped whatever its tokens look like.
+ */
+final class CatalogTokenizer {
+
+    private static final int EOF = -1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream in;
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+
+    // Reused scratch space for the name / tail bytes of the current row.
+    private byte[] name = new byte[64];
+    private int nameLength;
+    private byte[] tail = new byte[64];
+    private int tailLength;
+    private boolean malformed; // some int column of the current row did not parse
+
+    private CatalogTokenizer(InputStream in) {
+        this.in = in;
+    }
+
+    static void parse(CatalogFile file, InputStream in, CatalogRowHandler handler) throws IOException {
+        new CatalogTokenizer(in).run(file, handler);
+    }
+
+    private void run(CatalogFile file, CatalogRowHandler handler) throws IOException {
+        int[] fields = new int[file.intColumns];
+
+        int c = skipLine(); // header
+        while (c != EOF) {
+            c = skipBlanks(read());
+            if (c == '\n') continue;
+            if (c == EOF) break;
+
+            // Name
+            nameLength = 0;
+            while (!isBlank(c) && c != '\n' && c != EOF) {
+                if (nameLength == name.length) name = grow(name);
+                name[nameLength++] = (byte) c;
+                c = read();
+            }
+
+            // Integer columns; a bad one only matters once we know the row is complete
+            boolean complete = true;
+            malformed = false;
+            for (int i = 0; i < fields.length; i++) {
+                c = skipBlanks(c);
+                if (c == '\n' || c == EOF) {
+                    complete = false;
+                    break;
+                }
+                c = parseInt(c, fields, i);
+            }
+
+            // Trailing text (may contain spaces): runs of blanks collapse to one space.
+            tailLength = 0;
+            if (complete && file.hasTail) {
+                c = skipBlanks(c);
+                while (c != '\n' && c != EOF) {
+                    if (isBlank(c)) {
+                        c = skipBlanks(c);
+                        if (c == '\n' || c == EOF) break;
+                        appendTail(' ');
+                    }
+                    appendTail(c);
+                    c = read();
+                }
+                complete = tailLength > 0;
+            }
+
+            if (c != '\n' && c != EOF) {
+                c = skipLine();
+            }
+            if (!complete) continue;
+            if (malformed) {
+                throw new NumberFormatException("Malformed integer column in catalog file "
+                        + file.path + " (row " + new String(name, 0, nameLength, StandardCharsets.UTF_8) + ")");
+            }
+
+            handler.row(new String(name, 0, nameLength, StandardCharsets.UTF_8),
+                    fields,
+                    file.hasTail ? new String(tail, 0, tailLength, StandardCharsets.UTF_8) : null);
+        }
+    }
+
+    /**
+     * Parse one integer token starting at c into fields[index]. A token that is not a
+     * valid int is consumed whole and sets {@link #malformed} instead of throwing.
+     * @return the first byte after the token
+     */
+    private int parseInt(int c, int[] fields, int index) throws IOException {
+        boolean negative = false;
+        if (c == '-' || c == '+') {
+            negative = (c == '-');
+            c = read();
+        }
+        long value = 0;
+        int digits = 0;
+        boolean bad = false;
+        while (c >= '0' && c <= '9') {
+            if (!bad) {
+                value = value * 10 + (c - '0');
+                if (value > (long) Integer.MAX_VALUE + 1) bad = true;
+            }
+            digits++;
+            c = read();
+        }
+        if (digits == 0 || (!isBlank(c) && c != '\n' && c != EOF)) {
+            bad = true;
+            while (!isBlank(c) && c != '\n' && c != EOF) c = read();
+        }
+        if (negative) value = -value;
+        if (value > Integer.MAX_VALUE) bad = true;
+        if (bad) {
+            malformed = true;
+            value = 0;
+        }
+        fields[index] = (int) value;
+        return c;
+    }
+
+    private void appendTail(int c) {
+        if (tailLength == tail.length) tail = grow(tail);
+        tail[tailLength++] = (byte) c;
+    }
+
+    private static byte[] grow(byte[] b) {
+        byte[] bigger = new byte[b.length * 2];
+        System.arraycopy(b, 0, bigger, 0, b.length);
+        return bigger;
+    }
+
+    private static boolean isBlank(int c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\f' || c == 0x0B;
+    }
+
+    private int skipBlanks(int c) throws IOException {
+        while (isBlank(c)) c = read();
+        return c;
+    }
+
+    /** Consume through the end of the current line; returns '\n' or EOF. */
+    private int skipLine() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != '\n' && c != EOF);
+        return c;
+    }
+
+    private int read() throws IOException {
+        if (pos == limit) {
+            limit = in.read(buf, 0, buf.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return EOF;
+            }
+        }
+        return buf[pos++] & 0xFF;
+    }
+}
@@ -0,0 +1,160 @@
+package data;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hot-reloads the catalogs while the game is running.
+ *
+ * A daemon thread watches Legends_Monsters_and_Heroes/ for changes to the catalog
+ * files. Changed files are re-parsed on that thread and the affected catalog
+ * (ItemCatalog / MonsterCatalog / HeroCatalog) is swapped in as a whole, so the game loop never
+ * waits on a reload and never sees a half-built catalog. Monsters and items already
+ * in play keep the stats they were created with.
+ *
+ * A changed file is only published if it reads cleanly and still has rows: a file
+ * caught mid-save (truncated, emptied, or with a cut-off number) is rejected, the
+ * old catalog stays, and the next save triggers another try. The checked rows are
+ * exactly what the reload uses, so the file cannot change between check and publish.
+ */
+public final class CatalogWatcher {
+
+    // Editors often write a file in several steps; wait for them to settle.
+    private static final long SETTLE_MILLIS = 250;
+
+    private static final AtomicBoolean started = new AtomicBoolean(false);
+
+    private CatalogWatcher() {}
+
+    public static void start() {
+        if (!started.compareAndSet(false, true)) return;
+
+        final WatchService watcher;
+        final Path dir = Paths.get(CatalogFile.DATA_DIR);
+        try {
+            watcher = FileSystems.getDefault().newWatchService();
+            dir.register(watcher,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | UnsupportedOperationException e) {
+            // No data folder / no watch support: catalogs just stay as loaded.
+            return;
+        }
+
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                watchLoop(watcher);
+            }
+        }, "catalog-watcher");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private static void watchLoop(WatchService watcher) {
+        try {
+            while (true) {
+                Set<CatalogFile> changed = EnumSet.noneOf(CatalogFile.class);
+                WatchKey key = watcher.take();
+                do {
+                    collect(key, changed);
+                    if (!key.reset()) return; // folder went away
+                    key = watcher.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                } while (key != null);
+
+                if (!changed.isEmpty()) {
+                    reload(changed);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // shutting down
+        }
+    }
+
+    private static void collect(WatchKey key, Set<CatalogFile> changed) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (!(context instanceof Path)) continue;
+            CatalogFile file = CatalogFile.forFileName(((Path) context).getFileName().toString());
+            if (file != null) changed.add(file);
+        }
+    }
+
+    private static void reload(Set<CatalogFile> changed) {
+        boolean items = false;
+        boolean monsters = false;
+        boolean heroes = false;
+        boolean itemsRejected = false;
+        boolean monstersRejected = false;
+        boolean heroesRejected = false;
+        Map<CatalogFile, CatalogRows> checked = new EnumMap<CatalogFile, CatalogRows>(CatalogFile.class);
+        for (CatalogFile f : changed) {
+            CatalogPreloader.discard(f);
+            DataPack.invalidate(f);
+            items |= f.isItemFile();
+            monsters |= f.isMonsterFile();
+            heroes |= f.isHeroFile();
+
+            CatalogRows rows = readChecked(f);
+            if (rows != null) {
+                checked.put(f, rows);
+            } else {
+                itemsRejected |= f.isItemFile();
+                monstersRejected |= f.isMonsterFile();
+                heroesRejected |= f.isHeroFile();
+            }
+        }
+        // One bad file holds back its whole catalog; the other catalogs still reload.
+        items &= !itemsRejected;
+        monsters &= !monstersRejected;
+        heroes &= !heroesRejected;
+        for (Map.Entry<CatalogFile, CatalogRows> e : checked.entrySet()) {
+            CatalogFile f = e.getKey();
+            if ((f.isItemFile() && items) || (f.isMonsterFile() && monsters) || (f.isHeroFile() && heroes)) {
+                CatalogPreloader.stage(f, e.getValue());
+            }
+        }
+
+        try {
+            if (items) ItemCatalog.reload();
+            if (monsters) MonsterCatalog.reload();
+            if (heroes) HeroCatalog.reload();
+        } catch (RuntimeException e) {
+            System.err.println("Catalog reload failed, keeping previous data: " + e);
+        }
+    }
+
+    /** The file's rows, or null (after reporting why) if they must not be published. */
+    private static CatalogRows readChecked(CatalogFile file) {
+        CatalogRows rows = new CatalogRows(file);
+        try {
+            byte[] content = Files.readAllBytes(file.file().toPath());
+            CatalogTokenizer.parse(file, new ByteArrayInputStream(content), rows);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Catalog reload of " + file.path + " rejected, keeping previous data: " + e);
+            return null;
+        }
+        if (rows.size() == 0) {
+            System.err.println("Catalog reload of " + file.path + " rejected, keeping previous data: no rows");
+            return null;
+        }
+        return rows;
+    }
+}
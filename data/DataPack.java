@@ -0,0 +1,212 @@
+package data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.CRC32;
+
+/**
+ * Read side of the compiled catalog pack (see {@link DataPackCompiler} for the layout).
+ *
+ * The pack is memory-mapped once per process. Each section remembers the size,
+ * modification time and CRC-32 of the text file it was compiled from. Every file is
+ * checked once, when the pack is opened: matching size and time mean fresh, and only a
+ * file whose size or time changed is read and checksummed (a touched but unedited file
+ * is still fresh). {@link #read} refuses a stale section and the caller falls back to
+ * text; so does a section the {@link CatalogWatcher} has marked stale since.
+ *
+ * Opening never compiles: a missing or stale pack is rebuilt on a background thread
+ * for the next start, so the parallel preload never waits on a compile.
+ */
+final class DataPack {
+
+    static final String PACK_FILE = CatalogFile.DATA_DIR + "catalog.pack";
+
+    static final int MAGIC = 0x4C4D4850; // "LMHP"
+    static final int VERSION = 3;
+
+    private static class Section {
+        long sourceModified;
+        long sourceLength;
+        long sourceChecksum;
+        int rowCount;
+        int intColumns;
+        int recordOffset;
+    }
+
+    private final ByteBuffer buffer;
+    private final String[] strings;
+    private final Section[] sections; // indexed by CatalogFile ordinal, null if absent
+    // Bit per CatalogFile ordinal: checked stale at open, or changed on disk since
+    private volatile long staleMask;
+
+    private DataPack(ByteBuffer buffer, String[] strings, Section[] sections) {
+        this.buffer = buffer;
+        this.strings = strings;
+        this.sections = sections;
+        long stale = 0;
+        for (CatalogFile f : CatalogFile.values()) {
+            Section s = sections[f.ordinal()];
+            if (s == null || isStale(s, f)) stale |= 1L << f.ordinal();
+        }
+        this.staleMask = stale;
+    }
+
+    // Lazy holder: the pack is opened (and checked) once, on first access.
+    private static class Holder {
+        static final DataPack INSTANCE = openOrCompile(new File(PACK_FILE));
+    }
+
+    /** Shared pack for this process, or null if none could be opened or built. */
+    static DataPack getShared() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Stream the rows of one file to the handler.
+     * @return false (without calling the handler) if the pack has no fresh copy of the file
+     */
+    boolean read(CatalogFile file, CatalogRowHandler handler) {
+        Section s = sections[file.ordinal()];
+        if (s == null || s.intColumns != file.intColumns || (staleMask & (1L << file.ordinal())) != 0) {
+            return false;
+        }
+
+        // Duplicate so concurrent readers never share a position.
+        ByteBuffer in = buffer.duplicate();
+        in.position(s.recordOffset);
+        int[] fields = new int[s.intColumns];
+        for (int r = 0; r < s.rowCount; r++) {
+            String name = strings[in.getInt()];
+            int tailId = in.getInt();
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = in.getInt();
+            }
+            handler.row(name, fields, tailId < 0 ? null : strings[tailId]);
+        }
+        return true;
+    }
+
+    /** True if some file has no fresh section (a missing file needs none). */
+    boolean isStale() {
+        long stale = staleMask;
+        for (CatalogFile f : CatalogFile.values()) {
+            if ((stale & (1L << f.ordinal())) != 0 && (sections[f.ordinal()] != null || f.file().exists())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The file changed on disk after the pack was opened: stop serving its section. */
+    static void invalidate(CatalogFile file) {
+        DataPack pack = getShared();
+        if (pack == null) return;
+        synchronized (pack) {
+            pack.staleMask |= 1L << file.ordinal();
+        }
+    }
+
+    // Same size and time: fresh without reading. Otherwise only the content decides.
+    private static boolean isStale(Section s, CatalogFile file) {
+        File source = file.file();
+        if (source.lastModified() == s.sourceModified && source.length() == s.sourceLength) {
+            return false;
+        }
+        try {
+            byte[] content = Files.readAllBytes(source.toPath());
+            return content.length != s.sourceLength || checksum(content) != s.sourceChecksum;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    /** CRC-32 of a source file's bytes, as stored in each section. */
+    static long checksum(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length);
+        return crc.getValue();
+    }
+
+    // ------------------------------------------------------------
+    // Opening
+    // ------------------------------------------------------------
+
+    /**
+     * Open the pack; if it is missing or out of date, rebuild it in the background for
+     * the next start. Any failure just means "no pack": the text files are always a
+     * valid fallback, and a stale pack still serves the files that didn't change.
+     */
+    static DataPack openOrCompile(final File packFile) {
+        DataPack pack = null;
+        try {
+            if (packFile.exists()) pack = open(packFile);
+        } catch (IOException | RuntimeException e) {
+            pack = null; // corrupt or truncated pack: rebuild it below
+        }
+        if (pack == null || pack.isStale()) {
+            Thread t = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        DataPackCompiler.compile(packFile);
+                    } catch (IOException | RuntimeException e) {
+                        // Read-only install or a file mid-edit; try again next start.
+                    }
+                }
+            }, "pack-compile");
+            t.setDaemon(true); // the pack is swapped in atomically, so being cut off is harmless
+            t.start();
+        }
+        return pack;
+    }
+
+    static DataPack open(File packFile) throws IOException {
+        ByteBuffer buf;
+        try (RandomAccessFile raf = new RandomAccessFile(packFile, "r");
+             FileChannel channel = raf.getChannel()) {
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+            return null;
+        }
+
+        CatalogFile[] files = CatalogFile.values();
+        Section[] sections = new Section[files.length];
+        int sectionCount = buf.getInt();
+        for (int i = 0; i < sectionCount; i++) {
+            int ordinal = buf.getInt();
+            Section s = new Section();
+            s.sourceModified = buf.getLong();
+            s.sourceLength = buf.getLong();
+            s.sourceChecksum = buf.getLong();
+            s.rowCount = buf.getInt();
+            s.intColumns = buf.getInt();
+            s.recordOffset = buf.getInt();
+            if (ordinal >= 0 && ordinal < files.length) sections[ordinal] = s;
+        }
+
+        int stringCount = buf.getInt();
+        int[] offsets = new int[stringCount + 1];
+        for (int i = 0; i <= stringCount; i++) {
+            offsets[i] = buf.getInt();
+        }
+        int blobStart = buf.position();
+        String[] strings = new String[stringCount];
+        byte[] bytes = new byte[offsets[stringCount]];
+        buf.get(bytes);
+        for (int i = 0; i < stringCount; i++) {
+            strings[i] = new String(bytes, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8);
+        }
+        if (buf.position() != blobStart + bytes.length) {
+            return null;
+        }
+
+        return new DataPack(buf, strings, sections);
+    }
+}
@@ -0,0 +1,154 @@
+package data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles every catalog text file into one binary pack.
+ *
+ * Layout (big-endian, version {@link DataPack#VERSION}):
+ * <pre>
+ *   int  magic, int version, int sectionCount
+ *   sectionCount x { int fileOrdinal, long sourceModified, long sourceLength, long sourceChecksum,
+ *                    int rowCount, int intColumns, int recordOffset }
+ *   int  stringCount, int[stringCount + 1] byte offsets, UTF-8 string bytes
+ *   records: per row { int nameId, int tailId (-1 = none), int[intColumns] }
+ * </pre>
+ * Every record of a section has the same width, so rows are read with plain getInt calls.
+ * A source file that cannot be read or parsed fails the whole compile, so a section is
+ * never recorded as fresh for rows it does not have.
+ *
+ * Runs in the background whenever the pack is missing or stale at start-up (see
+ * {@link DataPack#openOrCompile}), or at build time with: java data.DataPackCompiler
+ */
+public final class DataPackCompiler {
+
+    private DataPackCompiler() {}
+
+    public static void main(String[] args) throws IOException {
+        File target = new File(args.length > 0 ? args[0] : DataPack.PACK_FILE);
+        compile(target);
+        System.out.println("Wrote " + target.getPath());
+    }
+
+    private static class Section {
+        final CatalogFile file;
+        final long sourceModified;
+        final long sourceLength;
+        final long sourceChecksum;
+        final List<int[]> records = new ArrayList<int[]>();
+
+        Section(CatalogFile file, long sourceModified, long sourceLength, long sourceChecksum) {
+            this.file = file;
+            this.sourceModified = sourceModified;
+            this.sourceLength = sourceLength;
+            this.sourceChecksum = sourceChecksum;
+        }
+    }
+
+    static void compile(File target) throws IOException {
+        final List<String> strings = new ArrayList<String>();
+        final Map<String, Integer> stringIds = new HashMap<String, Integer>();
+        List<Section> sections = new ArrayList<Section>();
+
+        for (CatalogFile f : CatalogFile.values()) {
+            File source = f.file();
+            if (!source.exists()) continue;
+
+            // Time taken before reading: a later edit changes it, so the check at open
+            // falls back to the checksum. Checksum and parse the same bytes.
+            long modified = source.lastModified();
+            byte[] content = Files.readAllBytes(source.toPath());
+            final Section section = new Section(f, modified, content.length, DataPack.checksum(content));
+            CatalogTokenizer.parse(f, new ByteArrayInputStream(content), new CatalogRowHandler() {
+                @Override
+                public void row(String name, int[] fields, String tail) {
+                    int[] record = new int[2 + fields.length];
+                    record[0] = intern(name, strings, stringIds);
+                    record[1] = tail == null ? -1 : intern(tail, strings, stringIds);
+                    System.arraycopy(fields, 0, record, 2, fields.length);
+                    section.records.add(record);
+                }
+            });
+            sections.add(section);
+        }
+
+        byte[][] encoded = new byte[strings.size()][];
+        int blobLength = 0;
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = strings.get(i).getBytes(StandardCharsets.UTF_8);
+            blobLength += encoded[i].length;
+        }
+
+        int headerLength = 12 + sections.size() * 40 + 4 + 4 * (encoded.length + 1) + blobLength;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(DataPack.MAGIC);
+        out.writeInt(DataPack.VERSION);
+        out.writeInt(sections.size());
+
+        int recordOffset = headerLength;
+        for (Section s : sections) {
+            out.writeInt(s.file.ordinal());
+            out.writeLong(s.sourceModified);
+            out.writeLong(s.sourceLength);
+            out.writeLong(s.sourceChecksum);
+            out.writeInt(s.records.size());
+            out.writeInt(s.file.intColumns);
+            out.writeInt(recordOffset);
+            recordOffset += s.records.size() * 4 * (2 + s.file.intColumns);
+        }
+
+        out.writeInt(encoded.length);
+        int offset = 0;
+        out.writeInt(offset);
+        for (byte[] b : encoded) {
+            offset += b.length;
+            out.writeInt(offset);
+        }
+        for (byte[] b : encoded) {
+            out.write(b);
+        }
+
+        for (Section s : sections) {
+            for (int[] record : s.records) {
+                for (int v : record) {
+                    out.writeInt(v);
+                }
+            }
+        }
+        out.flush();
+
+        // Write next to the target, then swap it in so readers never see a partial pack.
+        File tmp = new File(target.getPath() + ".tmp");
+        Files.write(tmp.toPath(), bytes.toByteArray());
+        try {
+            Files.move(tmp.toPath(), target.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static int intern(String s, List<String> strings, Map<String, Integer> ids) {
+        Integer id = ids.get(s);
+        if (id == null) {
+            id = strings.size();
+            strings.add(s);
+            ids.put(s, id);
+        }
+        return id;
+    }
+}
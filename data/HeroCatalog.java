@@ -0,0 +1,113 @@
+package data;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import characters.Hero;
+import characters.HeroType;
+
+/**
+ * Process-wide hero roster templates, parsed once.
+ *
+ * Each template is a fully set-up prototype Hero (class bonus applied, starting
+ * experience already turned into levels). Prototypes never leave this class:
+ * callers get copies via {@link #newHeroes}, so a roster costs one small copy
+ * per hero instead of a file read plus level-up replay.
+ */
+final class HeroCatalog {
+
+    private final Map<HeroType, Hero[]> prototypes;
+
+    private HeroCatalog(Map<HeroType, Hero[]> prototypes) {
+        this.prototypes = prototypes;
+    }
+
+    // Built lazily on first access; replaced wholesale (never mutated) by reload().
+    private static volatile HeroCatalog current;
+
+    static HeroCatalog getInstance() {
+        HeroCatalog catalog = current;
+        if (catalog == null) {
+            synchronized (HeroCatalog.class) {
+                catalog = current;
+                if (catalog == null) {
+                    catalog = load();
+                    current = catalog;
+                }
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Re-read the hero files into a brand-new catalog and swap it in atomically.
+     */
+    static void reload() {
+        HeroCatalog fresh = load();
+        synchronized (HeroCatalog.class) {
+            current = fresh;
+        }
+    }
+
+    /** New, independent heroes of the given class, in file order. */
+    List<Hero> newHeroes(HeroType type) {
+        Hero[] roster = prototypes.get(type);
+        List<Hero> heroes = new ArrayList<Hero>(roster == null ? 0 : roster.length);
+        if (roster != null) {
+            for (Hero prototype : roster) {
+                heroes.add(new Hero(prototype));
+            }
+        }
+        return heroes;
+    }
+
+    // ------------------------------------------------------------
+    // Loading
+    // ------------------------------------------------------------
+
+    private static HeroCatalog load() {
+        Map<HeroType, Hero[]> prototypes = new EnumMap<HeroType, Hero[]>(HeroType.class);
+        prototypes.put(HeroType.WARRIOR, loadRoster(CatalogFile.WARRIORS, HeroType.WARRIOR));
+        prototypes.put(HeroType.PALADIN, loadRoster(CatalogFile.PALADINS, HeroType.PALADIN));
+        prototypes.put(HeroType.SORCERER, loadRoster(CatalogFile.SORCERERS, HeroType.SORCERER));
+        return new HeroCatalog(prototypes);
+    }
+
+    private static Hero[] loadRoster(CatalogFile file, final HeroType type) {
+        final List<Hero> heroes = new ArrayList<Hero>();
+
+        CatalogReader.read(file, new CatalogRowHandler() {
+            @Override
+            public void row(String name, int[] f, String tail) {
+                // mana/strength/agility/dexterity/starting money/starting experience
+                int mana = f[0];
+                int strength = f[1];
+                int agility = f[2];
+                int dexterity = f[3];
+                int startingMoney = f[4];
+                int startingExp = f[5];
+
+                int baseHp = baseHpFor(type);
+
+                Hero hero = new Hero(name, type, 1, baseHp, mana,
+                        strength, dexterity, agility, startingMoney);
+
+                hero.gainExperience(startingExp);
+                heroes.add(hero);
+            }
+        });
+
+        return heroes.toArray(new Hero[heroes.size()]);
+    }
+
+    private static int baseHpFor(HeroType type) {
+        switch (type) {
+            case WARRIOR:  return 400;
+            case SORCERER: return 300;
+            case PALADIN:  return 350;
+            default:       return 300;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import items.Armor;
+import items.Potion;
+import items.Potion.StatType;
+import items.Spell;
+import items.Spell.SpellType;
+import items.SpellEffect;
+import items.FireSpellEffect;
+import items.IceSpellEffect;
+import items.Item;
+import items.LightningSpellEffect;
+import items.Weapon;
+
+/**
+ * Immutable snapshot of every item definition (armor, weapons, potions, spells).
+ *
+ * The catalog is read (from the data pack or the text files) once per process, the
+ * first time anyone asks for it, and the same instance is then shared by every
+ * ItemFactory (and therefore every market and battle), no matter how many engines run.
+ * When a file changes on disk, {@link CatalogWatcher} swaps in a freshly loaded
+ * instance; items already handed out keep their old stats.
+ *
+ * Every item object is an immutable template: there is exactly one Armor/Weapon/
+ * Potion/Spell per catalog row, and it is shared by everyone who holds that item.
+ * Template ids come from the item's kind and its {@link NameTable} id, so they never
+ * change for the life of the process: after a reload, the same entry (same kind and
+ * name) gets the same id, and an id never starts meaning a different entry.
+ */
+public final class ItemCatalog {
+
+    // Each list is pre-sorted by required level so level-capped picks are a binary search.
+    private final LevelIndexedList<Armor> armors;
+    private final LevelIndexedList<Weapon> weapons;
+    private final LevelIndexedList<Potion> potions;
+    private final LevelIndexedList<Spell> spells;
+
+    // templatesById[i].getTemplateId() == i; sparse (ids follow name ids, see templateId)
+    private final Item[] templatesById;
+    private final int templateCount;
+
+    // Item kinds, the low part of a template id
+    private static final int ARMOR = 0;
+    private static final int WEAPON = 1;
+    private static final int POTION = 2;
+    private static final int SPELL = 3;
+    private static final int KINDS = 4;
+
+    // Spell effects hold no state, so one instance per element serves every spell.
+    private static final SpellEffect FIRE_EFFECT = new FireSpellEffect();
+    private static final SpellEffect ICE_EFFECT = new IceSpellEffect();
+    private static final SpellEffect LIGHTNING_EFFECT = new LightningSpellEffect();
+
+    private ItemCatalog(List<Item> templates, List<Armor> armors, List<Weapon> weapons,
+                        List<Potion> potions, List<Spell> spells) {
+        int maxId = -1;
+        for (Item t : templates) maxId = Math.max(maxId, t.getTemplateId());
+        this.templatesById = new Item[maxId + 1];
+        for (Item t : templates) {
+            // Names are unique within a kind in the shipped files; on a duplicate the first row wins.
+            if (templatesById[t.getTemplateId()] == null) templatesById[t.getTemplateId()] = t;
+        }
+        this.templateCount = templates.size();
+        this.armors = new LevelIndexedList<Armor>(armors);
+        this.weapons = new LevelIndexedList<Weapon>(weapons);
+        this.potions = new LevelIndexedList<Potion>(potions);
+        this.spells = new LevelIndexedList<Spell>(spells);
+    }
+
+    // Built lazily on first access; replaced wholesale (never mutated) by reload().
+    private static volatile ItemCatalog current;
+
+    public static ItemCatalog getInstance() {
+        ItemCatalog catalog = current;
+        if (catalog == null) {
+            synchronized (ItemCatalog.class) {
+                catalog = current;
+                if (catalog == null) {
+                    catalog = load();
+                    current = catalog;
+                }
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Re-read the files into a brand-new catalog and swap it in atomically.
+     * Callers that already hold the old catalog keep using it; nothing is ever half-loaded.
+     */
+    static void reload() {
+        ItemCatalog fresh = load();
+        synchronized (ItemCatalog.class) {
+            current = fresh;
+        }
+    }
+
+    // Unmodifiable views, sorted by required level (file order within a level)
+    public List<Armor> getArmors()   { return armors.asList(); }
+    public List<Weapon> getWeapons() { return weapons.asList(); }
+    public List<Potion> getPotions() { return potions.asList(); }
+    public List<Spell> getSpells()   { return spells.asList(); }
+
+    /** Number of templates in this catalog. */
+    public int templateCount() {
+        return templateCount;
+    }
+
+    /**
+     * This catalog's template with that id, or null if it has none (ids are sparse,
+     * and an entry may have been removed by a reload).
+     */
+    public Item getTemplate(int templateId) {
+        return (templateId >= 0 && templateId < templatesById.length) ? templatesById[templateId] : null;
+    }
+
+    /** Stable id of the template with this kind and (canonical) name. */
+    private static int templateId(int kind, String name) {
+        return NameTable.idOf(name) * KINDS + kind;
+    }
+
+    LevelIndexedList<Armor> armorsByLevel()   { return armors; }
+    LevelIndexedList<Weapon> weaponsByLevel() { return weapons; }
+    LevelIndexedList<Potion> potionsByLevel() { return potions; }
+    LevelIndexedList<Spell> spellsByLevel()   { return spells; }
+
+    private static ItemCatalog load() {
+        final List<Item> templates = new ArrayList<Item>();
+        final List<Armor> armors = new ArrayList<Armor>();
+        final List<Weapon> weapons = new ArrayList<Weapon>();
+        final List<Potion> potions = new ArrayList<Potion>();
+        final List<Spell> spells = new ArrayList<Spell>();
+
+        CatalogReader.read(CatalogFile.ARMORY, new CatalogRowHandler() {
+            @Override
+            public void row(String name, int[] f, String tail) {
+                // cost, required level, damage reduction
+                Armor armor = new Armor(templateId(ARMOR, name), name, f[0], f[1], f[2]);
+                templates.add(armor);
+                armors.add(armor);
+            }
+        });
+        CatalogReader.read(CatalogFile.WEAPONRY, new CatalogRowHandler() {
+            @Override
+            public void row(String name, int[] f, String tail) {
+                // cost, level, damage, required hands
+                Weapon weapon = new Weapon(templateId(WEAPON, name), name, f[0], f[1], f[2], f[3]);
+                templates.add(weapon);
+                weapons.add(weapon);
+            }
+        });
+        CatalogReader.read(CatalogFile.POTIONS, new CatalogRowHandler() {
+            @Override
+            public void row(String name, int[] f, String tail) {
+                // cost, required level, attribute increase; tail = attribute affected
+                Potion potion = new Potion(templateId(POTION, name), name, f[0], f[1],
+                        mapAttributeToStatType(tail), f[2]);
+                templates.add(potion);
+                potions.add(potion);
+            }
+        });
+        loadSpellFile(CatalogFile.FIRE_SPELLS, SpellType.FIRE, templates, spells);
+        loadSpellFile(CatalogFile.ICE_SPELLS, SpellType.ICE, templates, spells);
+        loadSpellFile(CatalogFile.LIGHTNING_SPELLS, SpellType.LIGHTNING, templates, spells);
+
+        return new ItemCatalog(templates, armors, weapons, potions, spells);
+    }
+
+    private static void loadSpellFile(CatalogFile file, final SpellType type,
+                                      final List<Item> templates, final List<Spell> spells) {
+        CatalogReader.read(file, new CatalogRowHandler() {
+            @Override
+            public void row(String name, int[] f, String tail) {
+                // cost, required level, damage, mana cost
+                Spell spell = new Spell(templateId(SPELL, name), name, f[0], f[1], f[2], f[3],
+                        type, effectFor(type));
+                templates.add(spell);
+                spells.add(spell);
+            }
+        });
+    }
+
+    private static SpellEffect effectFor(SpellType type) {
+        switch (type) {
+            case FIRE: return FIRE_EFFECT;
+            case ICE: return ICE_EFFECT;
+            case LIGHTNING: return LIGHTNING_EFFECT;
+            default: return null;
+        }
+    }
+
+    private static StatType mapAttributeToStatType(String attrRaw) {
+        if (attrRaw == null) return StatType.ALL;
+        String normalized = attrRaw.replaceAll("\\s+", "").toLowerCase();
+
+        if (normalized.equals("health")) return StatType.HP;
+        if (normalized.equals("mana")) return StatType.MANA;
+        if (normalized.equals("strength")) return StatType.STRENGTH;
+        if (normalized.equals("dexterity")) return StatType.DEXTERITY;
+        if (normalized.equals("agility")) return StatType.AGILITY;
+
+        // Things like "Health/Mana/Strength/Agility" or "All Health/Mana/Strength/..."
+        return StatType.ALL;
+    }
+}
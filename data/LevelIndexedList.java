@@ -0,0 +1,68 @@
+package data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import items.Item;
+
+/**
+ * Read-only item list kept sorted by required level.
+ *
+ * Because the list is sorted, every item with requiredLevel <= L sits in a prefix
+ * [0, countUpTo(L)), which a binary search over the level column finds without
+ * allocating anything. Picking a random eligible item is then one random index.
+ */
+final class LevelIndexedList<T extends Item> {
+
+    private final List<T> items;
+    private final int[] levels;
+
+    LevelIndexedList(List<T> source) {
+        List<T> sorted = new ArrayList<T>(source);
+        // Stable sort: items of the same level keep their file order.
+        Collections.sort(sorted, new Comparator<T>() {
+            @Override
+            public int compare(T a, T b) {
+                return Integer.compare(a.getRequiredLevel(), b.getRequiredLevel());
+            }
+        });
+
+        this.items = Collections.unmodifiableList(sorted);
+        this.levels = new int[sorted.size()];
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = sorted.get(i).getRequiredLevel();
+        }
+    }
+
+    List<T> asList() {
+        return items;
+    }
+
+    int size() {
+        return levels.length;
+    }
+
+    T get(int index) {
+        return items.get(index);
+    }
+
+    /**
+     * Number of items whose required level is <= maxLevel
+     * (i.e. the length of the matching prefix).
+     */
+    int countUpTo(int maxLevel) {
+        int lo = 0;
+        int hi = levels.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (levels[mid] <= maxLevel) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
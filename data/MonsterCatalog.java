@@ -0,0 +1,121 @@
+package data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, process-wide set of monster templates with a level histogram.
+ *
+ * Templates are stored sorted by level. For every distinct level we keep the index
+ * of its first template (a cumulative count), so all templates inside a level band
+ * [min, max] form one contiguous slice that is found with two binary searches over
+ * the distinct levels, and a random template from the band is a single index.
+ */
+final class MonsterCatalog {
+
+    private final MonsterTemplate[] templates;  // sorted by level
+    private final int[] distinctLevels;         // ascending
+    private final int[] levelStart;             // levelStart[i] = # templates with level < distinctLevels[i]
+
+    private MonsterCatalog(List<MonsterTemplate> source) {
+        List<MonsterTemplate> sorted = new ArrayList<MonsterTemplate>(source);
+        // Stable sort: same-level templates keep their file order.
+        Collections.sort(sorted, new Comparator<MonsterTemplate>() {
+            @Override
+            public int compare(MonsterTemplate a, MonsterTemplate b) {
+                return Integer.compare(a.level, b.level);
+            }
+        });
+        this.templates = sorted.toArray(new MonsterTemplate[sorted.size()]);
+
+        int distinct = 0;
+        for (int i = 0; i < templates.length; i++) {
+            if (i == 0 || templates[i].level != templates[i - 1].level) distinct++;
+        }
+        this.distinctLevels = new int[distinct];
+        this.levelStart = new int[distinct];
+        int d = 0;
+        for (int i = 0; i < templates.length; i++) {
+            if (i == 0 || templates[i].level != templates[i - 1].level) {
+                distinctLevels[d] = templates[i].level;
+                levelStart[d] = i;
+                d++;
+            }
+        }
+    }
+
+    // Built lazily on first access; replaced wholesale (never mutated) by reload().
+    private static volatile MonsterCatalog current;
+
+    static MonsterCatalog getInstance() {
+        MonsterCatalog catalog = current;
+        if (catalog == null) {
+            synchronized (MonsterCatalog.class) {
+                catalog = current;
+                if (catalog == null) {
+                    catalog = load();
+                    current = catalog;
+                }
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Re-read the files into a brand-new catalog and swap it in atomically.
+     * Callers that already hold the old catalog keep using it; nothing is ever half-loaded.
+     */
+    static void reload() {
+        MonsterCatalog fresh = load();
+        synchronized (MonsterCatalog.class) {
+            current = fresh;
+        }
+    }
+
+    int size() {
+        return templates.length;
+    }
+
+    MonsterTemplate get(int index) {
+        return templates[index];
+    }
+
+    /**
+     * Index of the first template whose level is >= level
+     * (equivalently, how many templates are strictly below that level).
+     */
+    int firstIndexAtLevel(int level) {
+        int lo = 0;
+        int hi = distinctLevels.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (distinctLevels[mid] < level) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo < levelStart.length ? levelStart[lo] : templates.length;
+    }
+
+    // ------------------------------------------------------------
+    // Loading
+    // ------------------------------------------------------------
+
+    private static MonsterCatalog load() {
+        final List<MonsterTemplate> templates = new ArrayList<MonsterTemplate>();
+        CatalogRowHandler handler = new CatalogRowHandler() {
+            @Override
+            public void row(String name, int[] f, String tail) {
+                // level, damage, defense, dodge chance
+                templates.add(new MonsterTemplate(name, f[0], f[1], f[2], f[3]));
+            }
+        };
+        CatalogReader.read(CatalogFile.DRAGONS, handler);
+        CatalogReader.read(CatalogFile.EXOSKELETONS, handler);
+        CatalogReader.read(CatalogFile.SPIRITS, handler);
+        return new MonsterCatalog(templates);
+    }
+}
@@ -0,0 +1,39 @@
+package data;
+
+import config.GameBalance;
+
+/**
+ * Pre-scaled, immutable stat block for one (template, target level) pair.
+ * Spawning a monster just copies these numbers into a new Monster.
+ */
+final class MonsterStats {
+    final int level;
+    final int maxHp;
+    final int damage;
+    final int defense;
+    final int dodgeChance;
+
+    private MonsterStats(int level, int maxHp, int damage, int defense, int dodgeChance) {
+        this.level = level;
+        this.maxHp = maxHp;
+        this.damage = damage;
+        this.defense = defense;
+        this.dodgeChance = dodgeChance;
+    }
+
+    /**
+     * Force the template to targetLevel and scale its stats proportionally.
+     */
+    static MonsterStats scale(MonsterTemplate t, int targetLevel) {
+        int baseLevel = Math.max(1, t.level);
+        int level = Math.max(1, targetLevel);
+        double scale = level / (double) baseLevel;
+
+        int scaledDamage  = Math.max(1, (int) Math.round(t.damage * scale));
+        int scaledDefense = Math.max(0, (int) Math.round(t.defense * scale));
+        int scaledDodge   = Math.min(90, Math.max(0, (int) Math.round(t.dodgeChance * scale)));
+
+        return new MonsterStats(level, GameBalance.monsterHpForLevel(level),
+                scaledDamage, scaledDefense, scaledDodge);
+    }
+}
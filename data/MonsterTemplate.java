@@ -0,0 +1,51 @@
+package data;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Immutable monster definition as read from the catalog files.
+ * Fresh Monster instances are spawned from it for each battle / wave.
+ *
+ * Scaled stat blocks are computed lazily, once per target level, and shared by
+ * every spawn (and every thread) afterwards.
+ */
+final class MonsterTemplate {
+
+    // Levels above this are rare enough to just scale on demand.
+    private static final int CACHED_LEVELS = 64;
+
+    final String name;
+    final int level;
+    final int damage;
+    final int defense;
+    final int dodgeChance;
+
+    private final AtomicReferenceArray<MonsterStats> statsByLevel =
+            new AtomicReferenceArray<MonsterStats>(CACHED_LEVELS + 1);
+
+    MonsterTemplate(String name, int level, int damage,
+                    int defense, int dodgeChance) {
+        this.name = name;
+        this.level = level;
+        this.damage = damage;
+        this.defense = defense;
+        this.dodgeChance = dodgeChance;
+    }
+
+    /**
+     * Stats for this template forced to targetLevel (levels below 1 count as 1).
+     * Two threads racing on an empty slot compute equal blocks, so whichever wins is fine.
+     */
+    MonsterStats statsForLevel(int targetLevel) {
+        int lv = Math.max(1, targetLevel);
+        if (lv > CACHED_LEVELS) {
+            return MonsterStats.scale(this, lv);
+        }
+        MonsterStats stats = statsByLevel.get(lv);
+        if (stats == null) {
+            stats = MonsterStats.scale(this, lv);
+            statsByLevel.lazySet(lv, stats);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,72 @@
+package data;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide symbol table: gives every hero, monster and item name a compact int id.
+ *
+ * Catalog names are registered as the files are read (see {@link CatalogReader}), so
+ * anything built from a catalog already has an id and shares one canonical String.
+ * Code that writes names somewhere compact stores {@link #idOf} and turns it back
+ * into text with {@link #nameOf} only when it is shown. Ids are never reused or
+ * renumbered for the lifetime of the process, including across catalog reloads.
+ */
+public final class NameTable {
+
+    private static final ConcurrentHashMap<String, Integer> ids =
+            new ConcurrentHashMap<String, Integer>();
+
+    // names[id] is the canonical String; grown by copy, only under the class lock.
+    private static volatile String[] names = new String[256];
+    private static int count;
+
+    private NameTable() {}
+
+    /** Id for this name, registering it the first time it is seen. */
+    public static int idOf(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        return register(name);
+    }
+
+    /** The name registered under this id. */
+    public static String nameOf(int id) {
+        String[] table = names;
+        String name = (id >= 0 && id < table.length) ? table[id] : null;
+        if (name == null) {
+            throw new IllegalArgumentException("Unknown name id " + id);
+        }
+        return name;
+    }
+
+    /** The shared String instance for this name (registering it if needed). */
+    public static String canonical(String name) {
+        return nameOf(idOf(name));
+    }
+
+    /** Number of names registered so far; valid ids are 0 .. size() - 1. */
+    public static synchronized int size() {
+        return count;
+    }
+
+    private static synchronized int register(String name) {
+        Integer existing = ids.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        int id = count;
+        String[] table = names;
+        if (id == table.length) {
+            table = Arrays.copyOf(table, id * 2);
+        }
+        table[id] = name;
+        names = table;
+        count = id + 1;
+        // Published last, so anyone who can see the id can also resolve it.
+        ids.put(name, id);
+        return id;
+    }
+}
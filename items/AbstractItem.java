@@ -1,16 +1,20 @@
 package items;
 
 public abstract class AbstractItem implements Item {
-    protected String name;
-    protected int price;
-    protected int requiredLevel;
+    // Final: templates are shared across owners and threads, so they never change.
+    protected final int templateId;
+    protected final String name;
+    protected final int price;
+    protected final int requiredLevel;
 
-    protected AbstractItem(String name, int price, int requiredLevel) {
+    protected AbstractItem(int templateId, String name, int price, int requiredLevel) {
+        this.templateId = templateId;
         this.name = name;
         this.price = price;
         this.requiredLevel = requiredLevel;
     }
 
+    public int getTemplateId() { return templateId; }
     public String getName() { return name; }
     public int getPrice() { return price; }
     public int getRequiredLevel() { return requiredLevel; }
@@ -4,10 +4,10 @@ import characters.Hero;
 
 public class Armor extends AbstractItem implements Equippable {
 
-    private int damageReduction;
+    private final int damageReduction;
 
-    public Armor(String name, int price, int requiredLevel, int damageReduction) {
-        super(name, price, requiredLevel);
+    public Armor(int templateId, String name, int price, int requiredLevel, int damageReduction) {
+        super(templateId, name, price, requiredLevel);
         this.damageReduction = damageReduction;
     }
 
@@ -1,35 +1,165 @@
 package items;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * A hero's items, bucketed by type and stacked by template.
+ *
+ * Each add/remove goes straight to the bucket for the item's type, so the equip,
+ * potion and spell menus read a ready-made typed list instead of filtering the whole
+ * inventory. All the list getters return read-only views that are created once, so
+ * calling them costs nothing.
+ *
+ * Items are shared immutable templates, so identical copies are kept as one stack
+ * (template + count), keyed by the template object itself. A catalog reload makes new
+ * templates that may have new stats, so copies bought before and after it are separate
+ * stacks, and each copy keeps the stats it was bought with. The
+ * buckets list each distinct item once and {@link #getCount} says how many of it the
+ * hero holds. Each stack remembers its position in its bucket,
+ * so dropping the last copy swaps the bucket's last entry into the gap: O(1), at the
+ * cost of not keeping acquisition order.
+ */
 public class Inventory {
-    private List<Item> items;
+    private final Map<Item, ItemStack> stacks = new IdentityHashMap<Item, ItemStack>();
+    private int totalCount;
+
+    private final List<Weapon> weapons = new ArrayList<Weapon>();
+    private final List<Armor> armors = new ArrayList<Armor>();
+    private final List<Potion> potions = new ArrayList<Potion>();
+    private final List<Spell> spells = new ArrayList<Spell>();
+    private final List<Item> others = new ArrayList<Item>(); // any other Item implementation
+
+    private final List<Weapon> weaponView = Collections.unmodifiableList(weapons);
+    private final List<Armor> armorView = Collections.unmodifiableList(armors);
+    private final List<Potion> potionView = Collections.unmodifiableList(potions);
+    private final List<Spell> spellView = Collections.unmodifiableList(spells);
+
+    // Every item, grouped by type: weapons, armor, potions, spells, then the rest.
+    private final List<Item> allView = new AbstractList<Item>() {
+        @Override
+        public Item get(int index) {
+            if (index < 0) throw new IndexOutOfBoundsException("Index: " + index);
+            int i = index;
+            if (i < weapons.size()) return weapons.get(i);
+            i -= weapons.size();
+            if (i < armors.size()) return armors.get(i);
+            i -= armors.size();
+            if (i < potions.size()) return potions.get(i);
+            i -= potions.size();
+            if (i < spells.size()) return spells.get(i);
+            i -= spells.size();
+            if (i < others.size()) return others.get(i);
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+
+        @Override
+        public int size() {
+            return weapons.size() + armors.size() + potions.size() + spells.size() + others.size();
+        }
+    };
 
     public Inventory() {
-        this.items = new ArrayList<Item>();
     }
 
+    /** Read-only view of every distinct item, grouped by type. */
     public List<Item> getItems() {
-        return items;
+        return allView;
     }
 
+    public List<Weapon> getWeapons() { return weaponView; }
+    public List<Armor> getArmors()   { return armorView; }
+    public List<Potion> getPotions() { return potionView; }
+    public List<Spell> getSpells()   { return spellView; }
+
     public void add(Item item) {
-        items.add(item);
+        totalCount++;
+        ItemStack stack = stacks.get(item);
+        if (stack != null) {
+            stack.addOne();
+            return;
+        }
+        stack = new ItemStack(item);
+        stacks.put(item, stack);
+
+        if (item instanceof Weapon) {
+            stack.setIndex(weapons.size());
+            weapons.add((Weapon) item);
+        } else if (item instanceof Armor) {
+            stack.setIndex(armors.size());
+            armors.add((Armor) item);
+        } else if (item instanceof Potion) {
+            stack.setIndex(potions.size());
+            potions.add((Potion) item);
+        } else if (item instanceof Spell) {
+            stack.setIndex(spells.size());
+            spells.add((Spell) item);
+        } else {
+            stack.setIndex(others.size());
+            others.add(item);
+        }
     }
 
+    /** Removes one copy of the item; the entry disappears when its last copy goes. */
     public boolean remove(Item item) {
-        return items.remove(item);
+        ItemStack stack = stacks.get(item);
+        if (stack == null) {
+            return false;
+        }
+        totalCount--;
+        if (stack.removeOne() > 0) {
+            return true;
+        }
+        stacks.remove(item);
+
+        // Last copy gone: drop the entry from its bucket (a list of distinct items).
+        if (item instanceof Weapon) {
+            swapRemove(weapons, stack.getIndex());
+        } else if (item instanceof Armor) {
+            swapRemove(armors, stack.getIndex());
+        } else if (item instanceof Potion) {
+            swapRemove(potions, stack.getIndex());
+        } else if (item instanceof Spell) {
+            swapRemove(spells, stack.getIndex());
+        } else {
+            swapRemove(others, stack.getIndex());
+        }
+        return true;
+    }
+
+    // Move the bucket's last entry into the freed index (and tell its stack).
+    private <T extends Item> void swapRemove(List<T> bucket, int index) {
+        T moved = bucket.remove(bucket.size() - 1);
+        if (index < bucket.size()) {
+            bucket.set(index, moved);
+            stacks.get(moved).setIndex(index);
+        }
     }
 
     public Item get(int index) {
-        if (index < 0 || index >= items.size()) {
+        if (index < 0 || index >= allView.size()) {
             return null;
         }
-        return items.get(index);
+        return allView.get(index);
+    }
+
+    /** How many copies of this item the inventory holds (0 if none). */
+    public int getCount(Item item) {
+        ItemStack stack = stacks.get(item);
+        return (stack == null) ? 0 : stack.getCount();
     }
 
+    /** Number of distinct items (one per stack). */
     public int size() {
-        return items.size();
+        return stacks.size();
+    }
+
+    /** Number of items counting every copy. */
+    public int totalCount() {
+        return totalCount;
     }
 }
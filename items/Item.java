@@ -1,6 +1,17 @@
 package items;
 
+/**
+ * An item definition. Items are immutable flyweights: the catalog creates one
+ * object per distinct item and every market stock, loot drop and inventory
+ * refers to that same shared object.
+ */
 public interface Item {
+    /**
+     * Id of this template's catalog entry, built from its kind and NameTable name id.
+     * Ids are sparse, and they stay the same across catalog reloads, so two templates
+     * with one id may still differ in stats; compare the objects to tell copies apart.
+     */
+    int getTemplateId();
     String getName();
     int getPrice();
     int getRequiredLevel();
@@ -0,0 +1,31 @@
+package items;
+
+/**
+ * One inventory slot: a shared item template plus how many copies the owner holds.
+ * The template itself is immutable, so the count is the only per-owner state.
+ */
+final class ItemStack {
+    private final Item item;
+    private int count;
+    private int index; // position of the item in its Inventory bucket
+
+    ItemStack(Item item) {
+        this.item = item;
+        this.count = 1;
+    }
+
+    Item getItem() { return item; }
+    int getCount() { return count; }
+
+    int getIndex() { return index; }
+    void setIndex(int index) { this.index = index; }
+
+    void addOne() {
+        count++;
+    }
+
+    /** Takes one copy off the stack and returns how many are left. */
+    int removeOne() {
+        return --count;
+    }
+}
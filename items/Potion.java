@@ -13,12 +13,12 @@ public class Potion extends AbstractItem implements Consumable {
         ALL
     }
 
-    private StatType statType;
-    private int amount;
+    private final StatType statType;
+    private final int amount;
 
-    public Potion(String name, int price, int requiredLevel,
+    public Potion(int templateId, String name, int price, int requiredLevel,
                   StatType statType, int amount) {
-        super(name, price, requiredLevel);
+        super(templateId, name, price, requiredLevel);
         this.statType = statType;
         this.amount = amount;
     }
@@ -2,7 +2,6 @@ package items;
 
 import characters.Hero;
 import characters.Monster;
-import config.GameBalance;
 
 public class Spell extends AbstractItem implements Consumable {
 
@@ -12,14 +11,14 @@ public class Spell extends AbstractItem implements Consumable {
         LIGHTNING
     }
 
-    private int baseDamage;
-    private int manaCost;
-    private SpellType type;
-    private SpellEffect effect;
+    private final int baseDamage;
+    private final int manaCost;
+    private final SpellType type;
+    private final SpellEffect effect; // stateless, shared by all spells of a type
 
-    public Spell(String name, int price, int requiredLevel,
+    public Spell(int templateId, String name, int price, int requiredLevel,
                  int baseDamage, int manaCost, SpellType type, SpellEffect effect) {
-        super(name, price, requiredLevel);
+        super(templateId, name, price, requiredLevel);
         this.baseDamage = baseDamage;
         this.manaCost = manaCost;
         this.type = type;
@@ -43,7 +42,7 @@ public class Spell extends AbstractItem implements Consumable {
     }
 
     public int cast(Hero caster, Monster target) {
-        int rawDamage = baseDamage + (int)(caster.getDexterity() / GameBalance.SPELL_DEX_DIVISOR);
+        int rawDamage = baseDamage + caster.getSpellBonus();
         // Valor rule: spell damage is not reduced by defense or dodge
         target.takeSpellDamage(rawDamage);
         if (effect != null) {
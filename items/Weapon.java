@@ -5,12 +5,12 @@ import config.GameBalance;
 
 public class Weapon extends AbstractItem implements Equippable {
 
-    private int damage;
-    private int handsRequired; // 1 or 2
+    private final int damage;
+    private final int handsRequired; // 1 or 2
 
-    public Weapon(String name, int price, int requiredLevel,
+    public Weapon(int templateId, String name, int price, int requiredLevel,
                   int damage, int handsRequired) {
-        super(name, price, requiredLevel);
+        super(templateId, name, price, requiredLevel);
         this.damage = damage;
         this.handsRequired = handsRequired;
     }
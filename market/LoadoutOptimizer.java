@@ -0,0 +1,342 @@
+package market;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import characters.Hero;
+import config.GameBalance;
+import items.Armor;
+import items.Item;
+import items.Potion;
+import items.Weapon;
+
+/**
+ * Picks the set of market items that most improves a hero in combat for the gold
+ * they have (for bots, simulations, or as a shopping hint).
+ *
+ * Combat value is measured per exchange of blows, with the same formulas the battles use:
+ * <ul>
+ *   <li>attack: strength * HERO_ATTACK_STRENGTH_FACTOR + weapon.getEffectiveDamage(hands used)</li>
+ *   <li>damage taken from a hit of {@code incomingDamage}:
+ *       max(0, incomingDamage - armor reduction) * (1 - dodge chance)</li>
+ * </ul>
+ * and value = attack gained + damage taken avoided. Only one weapon and one armor can be
+ * worn, so at most one of each is bought; strength, agility and all-stat potions stack.
+ * The hero has no off-hand item, so a bought weapon is planned (and scored) held in both
+ * hands; the current weapon is scored the way it is held now.
+ *
+ * Prices are measured in units of their greatest common divisor, so budget tables stay
+ * small. Large stocks are mostly copies of a few templates, so copies are collapsed first:
+ * one candidate per weapon template, and each potion template's copies split into
+ * 1, 2, 4, ... bundles (the usual bounded-knapsack reduction). Weapons and armors that
+ * cost more than another candidate without doing better are dropped. The potions are
+ * then solved once as a 0/1 knapsack over the budget, and every remaining armor and
+ * weapon pair is combined with the best potion spend for the gold left.
+ *
+ * Potions are picked for the exposure of the current armor; each armor then re-scores
+ * those picks against its own exposure, so plan values are exact, but an armor that
+ * removes most of the exposure may be paired with agility potions where strength ones
+ * would now do slightly better.
+ */
+public final class LoadoutOptimizer {
+
+    // Budget units beyond this are coarsened (prices rounded up), so a plan never overspends.
+    private static final int MAX_BUDGET_UNITS = 4096;
+
+    private LoadoutOptimizer() {}
+
+    /** A purchase plan and the combat value it adds. */
+    public static final class Plan {
+        private final Weapon weapon;
+        private final Armor armor;
+        private final List<Potion> potions;
+        private final int cost;
+        private final double value;
+
+        Plan(Weapon weapon, Armor armor, List<Potion> potions, int cost, double value) {
+            this.weapon = weapon;
+            this.armor = armor;
+            this.potions = Collections.unmodifiableList(potions);
+            this.cost = cost;
+            this.value = value;
+        }
+
+        /** Weapon to buy, or null to keep the current one. */
+        public Weapon getWeapon() { return weapon; }
+
+        /** Armor to buy, or null to keep the current one. */
+        public Armor getArmor() { return armor; }
+
+        /**
+         * Whether to equip the new weapon with both hands, which is how it was scored
+         * (see {@link Hero#equipWeapon(Weapon, boolean)}); false if no weapon is bought.
+         */
+        public boolean isWeaponTwoHanded() { return weapon != null; }
+
+        public List<Potion> getPotions() { return potions; }
+        public int getCost() { return cost; }
+        public double getValue() { return value; }
+
+        public boolean isEmpty() {
+            return weapon == null && armor == null && potions.isEmpty();
+        }
+
+        /** The plan as batch orders for {@link MarketController#executeBatch}. */
+        public List<MarketOrder> toOrders(Hero hero) {
+            List<MarketOrder> orders = new ArrayList<MarketOrder>();
+            if (weapon != null) orders.add(MarketOrder.buy(hero, weapon));
+            if (armor != null) orders.add(MarketOrder.buy(hero, armor));
+            for (Potion p : potions) orders.add(MarketOrder.buy(hero, p));
+            return orders;
+        }
+    }
+
+    /** Best plan for this hero from what the market has that they can afford and use. */
+    public static Plan optimize(Hero hero, Market market, int incomingDamage) {
+        return optimize(hero, market.getAffordableFor(hero), incomingDamage);
+    }
+
+    public static Plan optimize(Hero hero, List<? extends Item> stock, int incomingDamage) {
+        int gold = hero.getGold();
+
+        // Current loadout
+        Weapon curWeapon = hero.getEquippedWeapon();
+        int curWeaponDamage = (curWeapon == null) ? 0
+                : curWeapon.getEffectiveDamage(hero.isUsingWeaponTwoHanded());
+        int curReduction = hero.getArmorReduction();
+        double dodge = hero.getDodgeChance() / 100.0;
+        double curExposed = Math.max(0, incomingDamage - curReduction);
+
+        // Candidates: usable, affordable, and actually an improvement; copies collapsed
+        Map<Weapon, Boolean> weaponSet = new LinkedHashMap<Weapon, Boolean>();
+        Map<Integer, Armor> cheapestArmor = new LinkedHashMap<Integer, Armor>(); // by exposure left
+        Map<Potion, Integer> potionCopies = new IdentityHashMap<Potion, Integer>();
+        List<Potion> potionOrder = new ArrayList<Potion>();
+        for (Item item : stock) {
+            if (item.getRequiredLevel() > hero.getLevel() || item.getPrice() > gold) continue;
+            if (item instanceof Weapon) {
+                if (((Weapon) item).getEffectiveDamage(true) > curWeaponDamage) weaponSet.put((Weapon) item, Boolean.TRUE);
+            } else if (item instanceof Armor) {
+                Armor armor = (Armor) item;
+                int left = Math.max(0, incomingDamage - armor.getDamageReduction());
+                Armor known = cheapestArmor.get(left);
+                if (left < curExposed && (known == null || armor.getPrice() < known.getPrice())) {
+                    cheapestArmor.put(left, armor);
+                }
+            } else if (item instanceof Potion) {
+                Potion potion = (Potion) item;
+                if (strengthGain(potion) <= 0 && agilityGain(potion) <= 0) continue;
+                Integer n = potionCopies.get(potion);
+                if (n == null) potionOrder.add(potion);
+                potionCopies.put(potion, (n == null) ? 1 : n + 1);
+            }
+        }
+
+        // Potion bundles: n copies become bundles of 1, 2, 4, ... and a remainder,
+        // which can still add up to any count from 0 to n.
+        List<Potion> potions = new ArrayList<Potion>();
+        List<Integer> bundleSizes = new ArrayList<Integer>();
+        for (Potion potion : potionOrder) {
+            int left = potionCopies.get(potion);
+            for (int size = 1; left > 0; size <<= 1) {
+                int take = Math.min(size, left);
+                potions.add(potion);
+                bundleSizes.add(take);
+                left -= take;
+            }
+        }
+
+        // Price unit: gcd of candidate prices, coarsened if the budget table would be huge
+        int unit = 0;
+        for (Item w : weaponSet.keySet()) unit = gcd(unit, w.getPrice());
+        for (Item a : cheapestArmor.values()) unit = gcd(unit, a.getPrice());
+        for (Item p : potions) unit = gcd(unit, p.getPrice());
+        if (unit == 0) {
+            return new Plan(null, null, new ArrayList<Potion>(), 0, 0.0);
+        }
+        unit = Math.max(unit, (gold + MAX_BUDGET_UNITS - 1) / MAX_BUDGET_UNITS);
+        int budget = gold / unit;
+
+        // Weapon stage, built once: cheapest first, each kept only if it beats every cheaper one
+        List<Weapon> weapons = new ArrayList<Weapon>(weaponSet.keySet());
+        Collections.sort(weapons, new Comparator<Weapon>() {
+            @Override
+            public int compare(Weapon a, Weapon b) {
+                if (a.getPrice() != b.getPrice()) return Integer.compare(a.getPrice(), b.getPrice());
+                return Integer.compare(b.getEffectiveDamage(true), a.getEffectiveDamage(true));
+            }
+        });
+        List<Weapon> weaponFront = new ArrayList<Weapon>();
+        for (Weapon w : weapons) {
+            if (units(w.getPrice(), unit) > budget) break;
+            if (weaponFront.isEmpty() || w.getEffectiveDamage(true)
+                    > weaponFront.get(weaponFront.size() - 1).getEffectiveDamage(true)) {
+                weaponFront.add(w);
+            }
+        }
+        int[] weaponCost = new int[weaponFront.size()];
+        double[] weaponValue = new double[weaponFront.size()];
+        for (int i = 0; i < weaponCost.length; i++) {
+            weaponCost[i] = units(weaponFront.get(i).getPrice(), unit);
+            weaponValue[i] = weaponFront.get(i).getEffectiveDamage(true) - curWeaponDamage;
+        }
+
+        // Armors likewise: keep one only if it leaves less exposure than every cheaper one
+        List<Armor> armors = new ArrayList<Armor>(cheapestArmor.values());
+        Collections.sort(armors, new Comparator<Armor>() {
+            @Override
+            public int compare(Armor a, Armor b) {
+                if (a.getPrice() != b.getPrice()) return Integer.compare(a.getPrice(), b.getPrice());
+                return Integer.compare(b.getDamageReduction(), a.getDamageReduction());
+            }
+        });
+        List<Armor> armorFront = new ArrayList<Armor>();
+        for (Armor a : armors) {
+            if (units(a.getPrice(), unit) > budget) break;
+            if (armorFront.isEmpty() || a.getDamageReduction()
+                    > armorFront.get(armorFront.size() - 1).getDamageReduction()) {
+                armorFront.add(a);
+            }
+        }
+
+        // Potion knapsack, solved once over the whole budget
+        int[] potionCost = new int[potions.size()];
+        int[] potionCount = new int[potions.size()];
+        for (int i = 0; i < potionCost.length; i++) {
+            potionCount[i] = bundleSizes.get(i);
+            potionCost[i] = units(potions.get(i).getPrice(), unit) * potionCount[i];
+        }
+        double[] potionAttack = new double[budget + 1]; // attack gained by the set picked for b
+        double[] potionDodge = new double[budget + 1];  // dodge probability gained by that set
+        boolean[][] took = new boolean[potions.size()][budget + 1];
+        solvePotions(potions, potionCost, potionCount, curExposed, potionAttack, potionDodge, took);
+
+        // Combine: each armor (or keeping the current one, index -1) with each weapon
+        // (or none) and the best potion spend for the rest of its budget.
+        double[] potionBest = new double[budget + 1];
+        int[] potionBestAt = new int[budget + 1];
+        int bestArmor = -1;
+        int bestWeapon = -1;
+        int bestPotionBudget = 0;
+        double bestValue = -1;
+        for (int a = -1; a < armorFront.size(); a++) {
+            int remaining = budget - ((a < 0) ? 0 : units(armorFront.get(a).getPrice(), unit));
+            double exposed = (a < 0) ? curExposed
+                    : Math.max(0, incomingDamage - armorFront.get(a).getDamageReduction());
+            double armorValue = (curExposed - exposed) * (1 - dodge);
+
+            // Potion sets re-scored for this armor, best within each spend
+            for (int b = 0; b <= remaining; b++) {
+                double v = potionAttack[b] + potionDodge[b] * exposed;
+                if (b > 0 && potionBest[b - 1] >= v) {
+                    potionBest[b] = potionBest[b - 1];
+                    potionBestAt[b] = potionBestAt[b - 1];
+                } else {
+                    potionBest[b] = v;
+                    potionBestAt[b] = b;
+                }
+            }
+
+            for (int w = -1; w < weaponCost.length; w++) {
+                int left = remaining - ((w < 0) ? 0 : weaponCost[w]);
+                if (left < 0) break;
+                double value = armorValue + ((w < 0) ? 0 : weaponValue[w]) + potionBest[left];
+                if (value > bestValue) {
+                    bestValue = value;
+                    bestArmor = a;
+                    bestWeapon = w;
+                    bestPotionBudget = potionBestAt[left];
+                }
+            }
+        }
+
+        List<Potion> chosen = new ArrayList<Potion>();
+        int b = bestPotionBudget;
+        for (int i = potions.size() - 1; i >= 0; i--) {
+            if (took[i][b]) {
+                for (int k = 0; k < potionCount[i]; k++) chosen.add(potions.get(i));
+                b -= potionCost[i];
+            }
+        }
+        Collections.reverse(chosen);
+        Weapon weapon = (bestWeapon < 0) ? null : weaponFront.get(bestWeapon);
+        Armor armor = (bestArmor < 0) ? null : armorFront.get(bestArmor);
+
+        int cost = 0;
+        if (weapon != null) cost += weapon.getPrice();
+        if (armor != null) cost += armor.getPrice();
+        for (Potion p : chosen) cost += p.getPrice();
+        return new Plan(weapon, armor, chosen, cost, bestValue);
+    }
+
+    /**
+     * 0/1 knapsack over the potion bundles, valued at the given exposure. For every
+     * budget b, records what the best set costing <= b units adds to attack and to
+     * dodge probability, and in took[i][b] whether bundle i is in it.
+     */
+    private static void solvePotions(List<Potion> potions, int[] potionCost, int[] potionCount,
+                                     double exposed, double[] attack, double[] dodge,
+                                     boolean[][] took) {
+        double[] best = new double[attack.length];
+        for (int i = 0; i < potionCost.length; i++) {
+            Potion p = potions.get(i);
+            double attackGain = potionCount[i] * strengthGain(p) * GameBalance.HERO_ATTACK_STRENGTH_FACTOR;
+            double dodgeGain = potionCount[i] * dodgeGain(p);
+            double value = attackGain + dodgeGain * exposed;
+            int c = potionCost[i];
+            // Budgets walked downwards, so b - c still holds the set without bundle i
+            for (int b = best.length - 1; b >= c; b--) {
+                double with = best[b - c] + value;
+                if (with > best[b]) {
+                    best[b] = with;
+                    attack[b] = attack[b - c] + attackGain;
+                    dodge[b] = dodge[b - c] + dodgeGain;
+                    took[i][b] = true;
+                }
+            }
+        }
+    }
+
+    private static int strengthGain(Potion p) {
+        switch (p.getStatType()) {
+            case STRENGTH:
+            case ALL:
+                return p.getAmount();
+            default:
+                return 0;
+        }
+    }
+
+    private static int agilityGain(Potion p) {
+        switch (p.getStatType()) {
+            case AGILITY:
+            case ALL:
+                return p.getAmount();
+            default:
+                return 0;
+        }
+    }
+
+    // Extra dodge probability from a potion (the 100% dodge cap is not modelled)
+    private static double dodgeGain(Potion p) {
+        return agilityGain(p) / GameBalance.HERO_DODGE_AGILITY_DIVISOR / 100.0;
+    }
+
+    private static int units(int price, int unit) {
+        return (price + unit - 1) / unit;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -1,9 +1,24 @@
 package market;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+import characters.Hero;
+import data.ItemCatalog;
 import data.ItemFactory;
 import items.Armor;
 import items.Item;
@@ -12,21 +27,127 @@ import items.Spell;
 import items.Weapon;
 import config.GameBalance;
 
+/**
+ * A shop's stock. Safe to share between several players or sessions (e.g. one Hero
+ * Nexus in co-op Valor): buyers take items with {@link #claim}, which never hands the
+ * same copy to two buyers, and {@link #getStock} returns a snapshot without locking.
+ *
+ * Stock can be generated ahead of time: {@link #prepare} and {@link #prepareRestock}
+ * build the shelf on a background thread as soon as the game sees it will be needed
+ * (a party approaching, a lane levelling up), and the shop swaps it in when it opens.
+ *
+ * Each shelf also carries indexes by type, price and required level, built once
+ * when it is stocked, so the filtered views below never scan the whole stock.
+ *
+ * Every shelf is generated from the market's seed, so a market can be shrunk to a
+ * {@link Memo} (seed, generation, level and the template ids still on the shelf) and
+ * rebuilt later with the same items, even if the catalog was reloaded in between.
+ */
 public class Market {
 
-    private final List<Item> stock;
-    private final Random random;
-    private int baseLevel;
+    // Background stock generation; one daemon thread is plenty for ten picks per shelf.
+    private static final Executor STOCKER = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "market-restock");
+            t.setDaemon(true); // never keep the JVM alive for a restock
+            return t;
+        }
+    });
+
+    // Hands out a different seed to every new market.
+    private static final Random SEEDS = new Random();
 
-    public Market(ItemFactory itemFactory, int approxLevel) {
-        this.stock = new ArrayList<Item>();
-        this.random = new Random();
+    private final long seed;
+    // Current stock generation. Restocking builds a whole new Shelf and swaps it in,
+    // so readers always see one complete generation. Null only while a market made by
+    // prepare() has not been opened yet.
+    private volatile Shelf shelf;
+    // Next shelf being built in the background, if any.
+    private final AtomicReference<PendingShelf> pending = new AtomicReference<PendingShelf>();
+    private volatile int baseLevel;
+    // Set when the market is evicted to a memo; a retired market never sells again.
+    private volatile boolean retired;
+    // Claims under way; retire() waits for them so its memo sees every sale.
+    private final AtomicInteger claimsInFlight = new AtomicInteger();
+
+    public Market(int approxLevel) {
+        this(SEEDS.nextLong(), approxLevel);
+        this.shelf = stockShelf(0, approxLevel);
+    }
+
+    private Market(long seed, int approxLevel) {
+        this.seed = seed;
         this.baseLevel = approxLevel;
-        populateStock(itemFactory, approxLevel);
     }
 
-    private void populateStock(ItemFactory itemFactory, int approxLevel) {
-        stock.clear();
+    /**
+     * A market whose first stock is generated in the background, starting now.
+     * Use it when a market will be visited soon but not yet.
+     */
+    public static Market prepare(int approxLevel) {
+        Market market = new Market(SEEDS.nextLong(), approxLevel);
+        market.prepareRestock(approxLevel);
+        return market;
+    }
+
+    /**
+     * Rebuild a market as it was when {@link #retire} was called. The shelf is rebuilt
+     * from the recorded template ids, not regenerated, so a catalog reload in between
+     * cannot change which items are for sale (only their current stats are used).
+     */
+    public static Market restore(Memo memo) {
+        Market market = new Market(memo.seed, memo.level);
+        market.shelf = (memo.stock == null)
+                ? market.stockShelf(memo.generation, memo.level)
+                : new Shelf(memo.generation, templatesOf(memo.stock));
+        return market;
+    }
+
+    // Current templates for recorded ids; an entry the catalog no longer has is left out.
+    private static List<Item> templatesOf(int[] templateIds) {
+        ItemCatalog catalog = ItemCatalog.getInstance();
+        List<Item> items = new ArrayList<Item>(templateIds.length);
+        for (int id : templateIds) {
+            Item template = catalog.getTemplate(id);
+            if (template != null) items.add(template);
+        }
+        return items;
+    }
+
+    /**
+     * Retire this market and return a compact record its stock can be rebuilt from.
+     * From here on {@link #claim} fails; claims already under way are waited for, so
+     * the memo counts exactly the copies that were sold. A prepare()d market whose
+     * stock was never opened is not built (or waited for) here; the memo just records
+     * what to generate later.
+     */
+    public Memo retire() {
+        retired = true;
+        while (claimsInFlight.get() != 0) {
+            Thread.yield(); // a claim is a few compare-and-sets; this never spins long
+        }
+        Shelf current = shelf;
+        if (current == null) {
+            PendingShelf prepared = pending.get();
+            int level = (prepared != null) ? prepared.level : baseLevel;
+            return new Memo(seed, 0, level, null);
+        }
+        return new Memo(seed, current.generation, baseLevel, current.unsoldTemplateIds());
+    }
+
+    public boolean isRetired() {
+        return retired;
+    }
+
+    // The same (seed, generation, level) always yields the same shelf.
+    private Shelf stockShelf(int generation, int approxLevel) {
+        Random random = new Random(seed + generation * 0x9E3779B97F4A7C15L);
+        return new Shelf(generation, populateStock(new ItemFactory(random), random, approxLevel));
+    }
+
+    private List<Item> populateStock(ItemFactory itemFactory, Random random, int approxLevel) {
+        List<Item> stock = new ArrayList<Item>();
         // Populate market with a mix of weapons, armor, potions, and spells.
         // Higher level items are rarer by biasing around approxLevel.
         for (int i = 0; i < 10; i++) {
@@ -62,18 +183,385 @@ public class Market {
                 stock.add(item);
             }
         }
+        return stock;
+    }
+
+    private int nextGeneration() {
+        Shelf current = shelf;
+        return (current == null) ? 0 : current.generation + 1;
+    }
+
+    /**
+     * Start building the stock for approxLevel in the background, so a later
+     * restock(approxLevel) only has to swap it in. Replaces any preparation
+     * for a different level; asking again for the same level does nothing.
+     */
+    public void prepareRestock(int approxLevel) {
+        PendingShelf current = pending.get();
+        if (current != null && current.level == approxLevel) return;
+
+        PendingShelf next = new PendingShelf(nextGeneration(), approxLevel);
+        if (pending.compareAndSet(current, next)) {
+            if (current != null) current.task.cancel(false);
+            STOCKER.execute(next.task);
+        }
     }
 
-    public void restock(ItemFactory itemFactory, int approxLevel) {
+    public void restock(int approxLevel) {
+        Shelf fresh = null;
+        PendingShelf prepared = pending.getAndSet(null);
+        if (prepared != null) {
+            if (prepared.level == approxLevel) {
+                fresh = prepared.await();
+            } else {
+                prepared.task.cancel(false);
+            }
+        }
+        if (fresh == null) {
+            fresh = stockShelf(nextGeneration(), approxLevel);
+        }
         this.baseLevel = approxLevel;
-        populateStock(itemFactory, approxLevel);
+        this.shelf = fresh;
     }
 
+    /** Read-only snapshot of the items still for sale; later sales don't change it. */
     public List<Item> getStock() {
-        return stock;
+        return getShelf().snapshot();
+    }
+
+    /**
+     * Takes one copy of the item off the shelf for a buyer.
+     * Returns false if no copy is left (e.g. another player just bought it), or if the
+     * market has been retired.
+     */
+    public boolean claim(Item item) {
+        // Counted before retired is read: either retire() waits for this claim or the claim sees the flag.
+        claimsInFlight.incrementAndGet();
+        try {
+            return !retired && getShelf().claim(item);
+        } finally {
+            claimsInFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Takes one copy of every item in the list, or none of them: if one cannot be had,
+     * the copies already taken go back on the shelf before this returns, and a market
+     * retired meanwhile is not affected. Returns null on success, else the item that
+     * could not be had (the first one if the market has been retired).
+     */
+    public Item claimAll(List<? extends Item> items) {
+        claimsInFlight.incrementAndGet();
+        try {
+            if (retired) return items.isEmpty() ? null : items.get(0);
+            Shelf current = getShelf();
+            for (int i = 0; i < items.size(); i++) {
+                if (!current.claim(items.get(i))) {
+                    for (int k = 0; k < i; k++) {
+                        current.unclaim(items.get(k));
+                    }
+                    return items.get(i);
+                }
+            }
+            return null;
+        } finally {
+            claimsInFlight.decrementAndGet();
+        }
+    }
+
+    // Views of the unsold stock, read straight off the shelf's indexes.
+    public List<Weapon> getWeapons() {
+        Shelf current = getShelf();
+        return current.collect(current.weapons, Weapon.class);
+    }
+
+    public List<Armor> getArmors() {
+        Shelf current = getShelf();
+        return current.collect(current.armors, Armor.class);
+    }
+
+    public List<Potion> getPotions() {
+        Shelf current = getShelf();
+        return current.collect(current.potions, Potion.class);
+    }
+
+    public List<Spell> getSpells() {
+        Shelf current = getShelf();
+        return current.collect(current.spells, Spell.class);
+    }
+
+    /** Unsold stock, cheapest first. */
+    public List<Item> getStockByPrice() {
+        Shelf current = getShelf();
+        return current.collect(current.byPrice, Item.class);
+    }
+
+    /** Unsold stock, lowest required level first. */
+    public List<Item> getStockByLevel() {
+        Shelf current = getShelf();
+        return current.collect(current.byLevel, Item.class);
+    }
+
+    /**
+     * Unsold items costing at most maxPrice with a required level of at most maxLevel,
+     * ordered by required level, then price.
+     */
+    public List<Item> getAffordable(int maxPrice, int maxLevel) {
+        return getShelf().affordable(maxPrice, maxLevel);
+    }
+
+    /** Items this hero could buy right now and equip or use. */
+    public List<Item> getAffordableFor(Hero hero) {
+        return getAffordable(hero.getGold(), hero.getLevel());
+    }
+
+    private Shelf getShelf() {
+        Shelf current = shelf;
+        if (current != null) return current;
+        synchronized (this) {
+            // First visit to a prepare()d market: pick up its background stock.
+            if (shelf == null) {
+                PendingShelf prepared = pending.getAndSet(null);
+                if (prepared != null) {
+                    this.baseLevel = prepared.level;
+                    this.shelf = prepared.await();
+                } else {
+                    this.shelf = stockShelf(0, baseLevel);
+                }
+            }
+            return shelf;
+        }
     }
 
     public int getBaseLevel() {
         return baseLevel;
     }
+
+    /**
+     * What is left of an evicted market: a few numbers instead of its items.
+     * {@link #restore} turns it back into a market with the same stock.
+     */
+    public static final class Memo {
+        private final long seed;
+        private final int generation;
+        private final int level;
+        private final int[] stock; // template ids still for sale; null = shelf never built
+
+        private Memo(long seed, int generation, int level, int[] stock) {
+            this.seed = seed;
+            this.generation = generation;
+            this.level = level;
+            this.stock = stock;
+        }
+    }
+
+    /** A shelf being generated on the STOCKER thread. */
+    private final class PendingShelf {
+        final int generation;
+        final int level;
+        final FutureTask<Shelf> task;
+
+        PendingShelf(final int generation, final int level) {
+            this.generation = generation;
+            this.level = level;
+            this.task = new FutureTask<Shelf>(new Callable<Shelf>() {
+                @Override
+                public Shelf call() {
+                    return stockShelf(generation, level);
+                }
+            });
+        }
+
+        /**
+         * The finished shelf. If the background thread has not got to it yet, build it
+         * right here instead of waiting in the queue (running a FutureTask twice is a no-op).
+         */
+        Shelf await() {
+            task.run();
+            try {
+                return task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // fall through and build it here
+            } catch (CancellationException e) {
+                // fall through and build it here
+            }
+            return stockShelf(generation, level);
+        }
+    }
+
+    /**
+     * One generation of stock: a fixed set of slots, each emptied exactly once by a
+     * compare-and-set when its item is bought.
+     *
+     * The indexes are arrays of slot numbers computed once here; since a slot only
+     * ever goes from stocked to sold, they stay valid and views just skip sold slots.
+     */
+    private static final class Shelf {
+        private final int generation;
+        private final Item[] stocked;                   // what each slot held when stocked
+        private final AtomicReferenceArray<Item> slots; // null once sold
+
+        final int[] weapons;
+        final int[] armors;
+        final int[] potions;
+        final int[] spells;
+        final int[] byPrice;
+        final int[] byLevel;
+
+        // For the affordable query: one run per distinct required level (ascending),
+        // each run's slots sorted by price alongside their prices for binary search.
+        private final int[] runLevels;
+        private final int[][] runSlots;
+        private final int[][] runPrices;
+
+        Shelf(int generation, List<Item> items) {
+            this.generation = generation;
+            this.stocked = items.toArray(new Item[items.size()]);
+            this.slots = new AtomicReferenceArray<Item>(stocked);
+
+            this.weapons = slotsOf(Weapon.class);
+            this.armors = slotsOf(Armor.class);
+            this.potions = slotsOf(Potion.class);
+            this.spells = slotsOf(Spell.class);
+
+            Integer[] order = new Integer[stocked.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            // Stable sorts, so equal keys keep stocking order
+            Arrays.sort(order, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer a, Integer b) {
+                    return Integer.compare(stocked[a].getPrice(), stocked[b].getPrice());
+                }
+            });
+            this.byPrice = toInts(order);
+            Arrays.sort(order, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer a, Integer b) {
+                    return Integer.compare(stocked[a].getRequiredLevel(), stocked[b].getRequiredLevel());
+                }
+            });
+            // order is now by level, then price (the previous order), which is what the runs need
+            this.byLevel = toInts(order);
+
+            int runs = 0;
+            for (int i = 0; i < byLevel.length; i++) {
+                if (i == 0 || levelOf(byLevel[i]) != levelOf(byLevel[i - 1])) runs++;
+            }
+            this.runLevels = new int[runs];
+            this.runSlots = new int[runs][];
+            this.runPrices = new int[runs][];
+            int start = 0;
+            for (int r = 0; r < runs; r++) {
+                int end = start;
+                while (end < byLevel.length && levelOf(byLevel[end]) == levelOf(byLevel[start])) end++;
+                runLevels[r] = levelOf(byLevel[start]);
+                runSlots[r] = Arrays.copyOfRange(byLevel, start, end);
+                runPrices[r] = new int[end - start];
+                for (int i = start; i < end; i++) {
+                    runPrices[r][i - start] = stocked[byLevel[i]].getPrice();
+                }
+                start = end;
+            }
+        }
+
+        private int levelOf(int slot) {
+            return stocked[slot].getRequiredLevel();
+        }
+
+        private int[] slotsOf(Class<? extends Item> type) {
+            int n = 0;
+            for (Item item : stocked) if (type.isInstance(item)) n++;
+            int[] result = new int[n];
+            n = 0;
+            for (int i = 0; i < stocked.length; i++) {
+                if (type.isInstance(stocked[i])) result[n++] = i;
+            }
+            return result;
+        }
+
+        private static int[] toInts(Integer[] boxed) {
+            int[] result = new int[boxed.length];
+            for (int i = 0; i < boxed.length; i++) result[i] = boxed[i];
+            return result;
+        }
+
+        <T extends Item> List<T> collect(int[] order, Class<T> type) {
+            List<T> result = new ArrayList<T>(order.length);
+            addUnsold(order, order.length, type, result);
+            return Collections.unmodifiableList(result);
+        }
+
+        private <T extends Item> void addUnsold(int[] order, int count, Class<T> type, List<T> into) {
+            for (int i = 0; i < count; i++) {
+                Item item = slots.get(order[i]);
+                if (item != null) {
+                    into.add(type.cast(item));
+                }
+            }
+        }
+
+        // Walks only the level runs <= maxLevel and, in each, only the prefix <= maxPrice.
+        List<Item> affordable(int maxPrice, int maxLevel) {
+            List<Item> result = new ArrayList<Item>();
+            for (int r = 0; r < runLevels.length && runLevels[r] <= maxLevel; r++) {
+                addUnsold(runSlots[r], upperBound(runPrices[r], maxPrice), Item.class, result);
+            }
+            return Collections.unmodifiableList(result);
+        }
+
+        private static int upperBound(int[] sorted, int key) {
+            int lo = 0;
+            int hi = sorted.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid] <= key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        List<Item> snapshot() {
+            List<Item> items = new ArrayList<Item>(stocked.length);
+            for (int i = 0; i < stocked.length; i++) {
+                Item item = slots.get(i);
+                if (item != null) {
+                    items.add(item);
+                }
+            }
+            return Collections.unmodifiableList(items);
+        }
+
+        boolean claim(Item item) {
+            for (int i = 0; i < stocked.length; i++) {
+                if (stocked[i] == item && slots.compareAndSet(i, item, null)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Undo a claim that could not be completed (used by claimAll).
+        void unclaim(Item item) {
+            for (int i = 0; i < stocked.length; i++) {
+                if (stocked[i] == item && slots.compareAndSet(i, null, item)) {
+                    return;
+                }
+            }
+        }
+
+        int[] unsoldTemplateIds() {
+            int[] ids = new int[stocked.length];
+            int n = 0;
+            for (int i = 0; i < stocked.length; i++) {
+                Item item = slots.get(i);
+                if (item != null) ids[n++] = item.getTemplateId();
+            }
+            return Arrays.copyOf(ids, n);
+        }
+    }
 }
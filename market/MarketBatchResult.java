@@ -0,0 +1,46 @@
+package market;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of {@link MarketController#executeBatch}: either every order was applied
+ * (with one summary line per order) or none was, with the reason for the rejection.
+ */
+public final class MarketBatchResult {
+
+    private final boolean success;
+    private final String failure;
+    private final List<String> lines;
+    private final int goldSpent;
+    private final int goldEarned;
+
+    private MarketBatchResult(boolean success, String failure, List<String> lines,
+                              int goldSpent, int goldEarned) {
+        this.success = success;
+        this.failure = failure;
+        this.lines = lines;
+        this.goldSpent = goldSpent;
+        this.goldEarned = goldEarned;
+    }
+
+    static MarketBatchResult applied(List<String> lines, int goldSpent, int goldEarned) {
+        return new MarketBatchResult(true, null, Collections.unmodifiableList(lines),
+                goldSpent, goldEarned);
+    }
+
+    static MarketBatchResult rejected(String failure) {
+        return new MarketBatchResult(false, failure, Collections.<String>emptyList(), 0, 0);
+    }
+
+    public boolean isSuccess() { return success; }
+
+    /** Why the batch was rejected, or null if it was applied. */
+    public String getFailure() { return failure; }
+
+    /** One line per applied order, in order. Empty if the batch was rejected. */
+    public List<String> getLines() { return lines; }
+
+    public int getGoldSpent()  { return goldSpent; }
+    public int getGoldEarned() { return goldEarned; }
+}
@@ -1,16 +1,16 @@
 package market;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import characters.Hero;
 import config.GameBalance;
 import io.InputHandler;
 import io.Renderer;
-import items.Armor;
+import items.Inventory;
 import items.Item;
-import items.Potion;
-import items.Spell;
-import items.Weapon;
 
 public class MarketController {
 
@@ -48,6 +48,130 @@ public class MarketController {
         }
     }
 
+    /**
+     * Runs a whole shopping trip in one call, with no prompts.
+     * The orders are checked together, in order, against each hero's gold, level and
+     * items and against the market's stock. A hero can sell first and spend the
+     * proceeds, and two orders can never both take the last copy of an item.
+     * If any order fails the check, nothing is applied; otherwise all of them are.
+     */
+    public MarketBatchResult executeBatch(Market market, List<MarketOrder> orders) {
+        if (market.isRetired()) {
+            return MarketBatchResult.rejected("This market has closed.");
+        }
+        String failure = validateBatch(market.getStock(), orders);
+        if (failure != null) {
+            return MarketBatchResult.rejected(failure);
+        }
+
+        // Claim every bought copy up front, all or nothing. If another player took one
+        // since the check above, the market gives back what was taken and nothing applies.
+        List<Item> wanted = new ArrayList<Item>();
+        for (MarketOrder order : orders) {
+            if (order.getKind() == MarketOrder.Kind.BUY) wanted.add(order.getItem());
+        }
+        Item missing = market.claimAll(wanted);
+        if (missing != null) {
+            if (market.isRetired()) {
+                return MarketBatchResult.rejected("This market has closed.");
+            }
+            return MarketBatchResult.rejected(missing.getName() + " was just sold to someone else.");
+        }
+
+        List<String> lines = new ArrayList<String>();
+        int spent = 0;
+        int earned = 0;
+        for (MarketOrder order : orders) {
+            Hero hero = order.getHero();
+            Item item = order.getItem();
+            if (order.getKind() == MarketOrder.Kind.BUY) {
+                int price = item.getPrice();
+                hero.spendGold(price);
+                hero.getInventory().add(item);
+                spent += price;
+                lines.add(hero.getName() + " bought " + item.getName() +
+                        " for " + price + " gold.");
+            } else {
+                int sellPrice = sellPriceOf(item);
+                hero.addGold(sellPrice);
+                hero.getInventory().remove(item);
+                earned += sellPrice;
+                lines.add(hero.getName() + " sold " + item.getName() +
+                        " for " + sellPrice + " gold.");
+            }
+        }
+        return MarketBatchResult.applied(lines, spent, earned);
+    }
+
+    // Dry run of the batch on projected gold, stock and inventories.
+    // Returns the first problem found, or null if every order can go through.
+    private String validateBatch(List<Item> stock, List<MarketOrder> orders) {
+        Map<Item, Integer> stockLeft = new IdentityHashMap<Item, Integer>();
+        for (Item item : stock) {
+            Integer n = stockLeft.get(item);
+            stockLeft.put(item, (n == null) ? 1 : n + 1);
+        }
+        Map<Hero, Integer> gold = new IdentityHashMap<Hero, Integer>();
+        Map<Hero, Map<Item, Integer>> owned = new IdentityHashMap<Hero, Map<Item, Integer>>();
+
+        for (int i = 0; i < orders.size(); i++) {
+            MarketOrder order = orders.get(i);
+            Hero hero = order.getHero();
+            Item item = order.getItem();
+            String prefix = "Order " + (i + 1) + ": ";
+            if (hero == null || item == null) {
+                return prefix + "missing hero or item.";
+            }
+
+            Integer g = gold.get(hero);
+            int heroGold = (g == null) ? hero.getGold() : g;
+            Map<Item, Integer> copies = owned.get(hero);
+            if (copies == null) {
+                copies = new IdentityHashMap<Item, Integer>();
+                owned.put(hero, copies);
+            }
+            Integer c = copies.get(item);
+            int held = (c == null) ? hero.getInventory().getCount(item) : c;
+
+            if (order.getKind() == MarketOrder.Kind.BUY) {
+                Integer left = stockLeft.get(item);
+                if (left == null || left <= 0) {
+                    return prefix + item.getName() + " is not in stock.";
+                }
+                if (hero.getLevel() < item.getRequiredLevel()) {
+                    return prefix + hero.getName() + "'s level is too low for " + item.getName() + ".";
+                }
+                if (heroGold < item.getPrice()) {
+                    return prefix + hero.getName() + " does not have enough gold for " +
+                            item.getName() + ".";
+                }
+                stockLeft.put(item, left - 1);
+                gold.put(hero, heroGold - item.getPrice());
+                copies.put(item, held + 1);
+            } else {
+                if (held <= 0) {
+                    return prefix + hero.getName() + " has no " + item.getName() + " to sell.";
+                }
+                gold.put(hero, heroGold + sellPriceOf(item));
+                copies.put(item, held - 1);
+            }
+        }
+        return null;
+    }
+
+    // Appends one type's items to a numbered menu, with the type label for each entry.
+    private static void addMenuSection(List<Item> menu, List<String> types, String type,
+                                       List<? extends Item> items) {
+        for (Item item : items) {
+            menu.add(item);
+            types.add(type);
+        }
+    }
+
+    private static int sellPriceOf(Item item) {
+        return (item.getPrice() * GameBalance.SELL_PRICE_PERCENT) / 100;
+    }
+
     private void handleBuy(Market market, List<Hero> party) {
         if (party.isEmpty()) {
             renderer.renderMessage("No heroes in party.");
@@ -71,7 +195,13 @@ public class MarketController {
         }
 
         Hero buyer = party.get(idx);
-        List<Item> stock = market.getStock();
+        // Menu built type by type from the market's indexes, so no per-item type checks
+        List<Item> stock = new ArrayList<Item>();
+        List<String> types = new ArrayList<String>();
+        addMenuSection(stock, types, "Weapon", market.getWeapons());
+        addMenuSection(stock, types, "Armor", market.getArmors());
+        addMenuSection(stock, types, "Potion", market.getPotions());
+        addMenuSection(stock, types, "Spell", market.getSpells());
         if (stock.isEmpty()) {
             renderer.renderMessage("The market is empty.");
             return;
@@ -80,11 +210,7 @@ public class MarketController {
         renderer.renderMessage("Items for sale:");
         for (int i = 0; i < stock.size(); i++) {
             Item item = stock.get(i);
-            String type = "Item";
-            if (item instanceof Weapon) type = "Weapon";
-            else if (item instanceof Armor) type = "Armor";
-            else if (item instanceof Potion) type = "Potion";
-            else if (item instanceof Spell) type = "Spell";
+            String type = types.get(i);
 
             renderer.renderMessage("  " + (i+1) + ") [" + type + "] " +
                     item.getName() +
@@ -108,13 +234,18 @@ public class MarketController {
         }
 
         int price = selected.getPrice();
-        if (!buyer.spendGold(price)) {
+        if (buyer.getGold() < price) {
             renderer.renderMessage("Not enough gold.");
             return;
         }
+        // finite stock: the market may be shared, so take the copy before paying
+        if (!market.claim(selected)) {
+            renderer.renderMessage(selected.getName() + " was just sold to someone else.");
+            return;
+        }
 
+        buyer.spendGold(price);
         buyer.getInventory().add(selected);
-        stock.remove(selected); // finite stock: remove after purchase
         renderer.renderMessage(buyer.getName() + " bought " +
                 selected.getName() + " for " + price + " gold.");
     }
@@ -142,7 +273,13 @@ public class MarketController {
         }
 
         Hero seller = party.get(idx);
-        List<Item> items = seller.getInventory().getItems();
+        Inventory inventory = seller.getInventory();
+        List<Item> items = new ArrayList<Item>();
+        List<String> types = new ArrayList<String>();
+        addMenuSection(items, types, "Weapon", inventory.getWeapons());
+        addMenuSection(items, types, "Armor", inventory.getArmors());
+        addMenuSection(items, types, "Potion", inventory.getPotions());
+        addMenuSection(items, types, "Spell", inventory.getSpells());
         if (items.isEmpty()) {
             renderer.renderMessage("This hero has no items.");
             return;
@@ -152,14 +289,11 @@ public class MarketController {
                 GameBalance.SELL_PRICE_PERCENT + "% of price):");
         for (int i = 0; i < items.size(); i++) {
             Item it = items.get(i);
-            String type = "Item";
-            if (it instanceof Weapon) type = "Weapon";
-            else if (it instanceof Armor) type = "Armor";
-            else if (it instanceof Potion) type = "Potion";
-            else if (it instanceof Spell) type = "Spell";
+            String type = types.get(i);
 
+            int count = inventory.getCount(it);
             renderer.renderMessage("  " + (i+1) + ") [" + type + "] " +
-                    it.getName() +
+                    it.getName() + (count > 1 ? " x" + count : "") +
                     " | Price: " + it.getPrice());
         }
         renderer.renderMessage("  0) Back");
@@ -173,8 +307,7 @@ public class MarketController {
         }
 
         Item toSell = items.get(choice);
-        int original = toSell.getPrice();
-        int sellPrice = (original * GameBalance.SELL_PRICE_PERCENT) / 100;
+        int sellPrice = sellPriceOf(toSell);
 
         seller.addGold(sellPrice);
         seller.getInventory().remove(toSell);
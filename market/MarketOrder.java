@@ -0,0 +1,35 @@
+package market;
+
+import characters.Hero;
+import items.Item;
+
+/**
+ * One line of a batch shopping trip: a hero buying an item from the market's
+ * stock, or selling one copy of an item from their inventory.
+ */
+public final class MarketOrder {
+
+    public enum Kind { BUY, SELL }
+
+    private final Kind kind;
+    private final Hero hero;
+    private final Item item;
+
+    private MarketOrder(Kind kind, Hero hero, Item item) {
+        this.kind = kind;
+        this.hero = hero;
+        this.item = item;
+    }
+
+    public static MarketOrder buy(Hero hero, Item item) {
+        return new MarketOrder(Kind.BUY, hero, item);
+    }
+
+    public static MarketOrder sell(Hero hero, Item item) {
+        return new MarketOrder(Kind.SELL, hero, item);
+    }
+
+    public Kind getKind() { return kind; }
+    public Hero getHero() { return hero; }
+    public Item getItem() { return item; }
+}
@@ -1,13 +1,54 @@
 package world;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import market.Market;
 
+/**
+ * A tile hosting a market.
+ *
+ * Only the most recently visited markets (across all worlds) are kept in full. Once
+ * more than MAX_LIVE_MARKETS are live, the least recently visited one is shrunk to a
+ * {@link Market.Memo} and rebuilt, with the same stock, the next time someone asks for it.
+ *
+ * Each tile's market/memo state is guarded by the tile's own lock, and restoring only
+ * happens under it, so every session sees the same Market for a tile. Shopping goes
+ * through {@link #acquireMarket}/{@link #releaseMarket}, which pin the market so it
+ * cannot be evicted while anyone is buying from it. An evicted Market is retired and
+ * refuses further sales, so a stale reference can never sell what the memo recorded.
+ *
+ * Only visits count for recency. Looking at a tile from next door ({@link #hasMarket},
+ * {@link #peekMarket}) neither restores nor touches it, and a market prepared ahead of
+ * a visit ({@link #warmMarket}) stays off the LRU list until someone actually comes.
+ * At most MAX_WARM_MARKETS such unvisited markets are kept; past that the oldest is
+ * dropped, which loses nothing since nobody has seen its stock.
+ */
 public class MarketTile implements Tile {
 
+    private static final int MAX_LIVE_MARKETS = 64;
+    private static final int MAX_WARM_MARKETS = 8;
+
+    // Recency order only (least recently visited first); never held while taking a
+    // tile's lock, and no eviction work happens under it.
+    private static final LinkedHashMap<MarketTile, Boolean> liveMarkets =
+            new LinkedHashMap<MarketTile, Boolean>(16, 0.75f, true);
+
+    // Tiles holding a warmed, not yet visited market, oldest first; same locking rule.
+    private static final LinkedHashMap<MarketTile, Boolean> warmMarkets =
+            new LinkedHashMap<MarketTile, Boolean>();
+
+    // Guarded by this tile's lock
     private Market market;
+    private Market.Memo evicted; // set instead of market while evicted
+    private int pins;            // shoppers currently using the market
+    private boolean warm;        // market was warmed and nobody has visited it yet
 
     public MarketTile(Market market) {
-        this.market = market;
+        setMarket(market);
     }
 
     @Override
@@ -20,11 +61,155 @@ public class MarketTile implements Tile {
         return TileType.MARKET;
     }
 
+    /**
+     * The tile's market (restored if it was evicted), or null if it has none yet.
+     * Fine for looking; use acquireMarket() to buy or sell.
+     */
     public Market getMarket() {
+        Market current;
+        boolean firstVisit;
+        synchronized (this) {
+            current = liveMarket();
+            firstVisit = warm;
+            warm = false;
+        }
+        if (firstVisit) unwarm();
+        if (current != null) touch();
+        return current;
+    }
+
+    /**
+     * Like getMarket(), but the market stays live (cannot be evicted) until the
+     * matching releaseMarket(). Returns null, and pins nothing, if there is no market.
+     */
+    public Market acquireMarket() {
+        Market current;
+        boolean firstVisit;
+        synchronized (this) {
+            current = liveMarket();
+            if (current != null) pins++;
+            firstVisit = warm;
+            warm = false;
+        }
+        if (firstVisit) unwarm();
+        if (current != null) touch();
+        return current;
+    }
+
+    public synchronized void releaseMarket() {
+        if (pins > 0) pins--;
+    }
+
+    /** True if the tile has a market, live or evicted. Not a visit: restores and touches nothing. */
+    public synchronized boolean hasMarket() {
+        return market != null || evicted != null;
+    }
+
+    /**
+     * The market if it is live right now, else null (also when it is evicted).
+     * Not a visit: restores and touches nothing, so neighbours can be checked freely.
+     */
+    public synchronized Market peekMarket() {
         return market;
     }
 
+    /**
+     * Give a tile that has no market yet one prepared ahead of a visit, without
+     * counting as a visit. Returns false, and leaves the tile alone, if it already
+     * has a market.
+     */
+    public boolean warmMarket(Market prepared) {
+        synchronized (this) {
+            if (market != null || evicted != null) return false;
+            market = prepared;
+            warm = true;
+        }
+        MarketTile dropped = null;
+        synchronized (warmMarkets) {
+            warmMarkets.put(this, Boolean.TRUE);
+            if (warmMarkets.size() > MAX_WARM_MARKETS) {
+                Iterator<MarketTile> it = warmMarkets.keySet().iterator();
+                dropped = it.next();
+                it.remove();
+            }
+        }
+        if (dropped != null) dropped.dropWarm();
+        return true;
+    }
+
     public void setMarket(Market market) {
-        this.market = market;
+        boolean wasWarm;
+        synchronized (this) {
+            this.market = market;
+            this.evicted = null;
+            wasWarm = warm;
+            warm = false;
+        }
+        if (wasWarm) unwarm();
+        if (market != null) {
+            touch();
+        } else {
+            synchronized (liveMarkets) {
+                liveMarkets.remove(this);
+            }
+        }
+    }
+
+    private void unwarm() {
+        synchronized (warmMarkets) {
+            warmMarkets.remove(this);
+        }
+    }
+
+    // Pushed out of the warm list: forget the market unless someone visited it meanwhile.
+    private synchronized void dropWarm() {
+        if (warm && pins == 0) {
+            market = null;
+            warm = false;
+        }
+    }
+
+    // Caller holds this tile's lock.
+    private Market liveMarket() {
+        if (market == null && evicted != null) {
+            market = Market.restore(evicted);
+            evicted = null;
+        }
+        return market;
+    }
+
+    // Mark as most recently visited, then evict whatever fell off the end.
+    private void touch() {
+        List<MarketTile> victims = null;
+        synchronized (liveMarkets) {
+            liveMarkets.put(this, Boolean.TRUE);
+            Iterator<MarketTile> it = liveMarkets.keySet().iterator();
+            while (liveMarkets.size() > MAX_LIVE_MARKETS && it.hasNext()) {
+                MarketTile eldest = it.next();
+                if (eldest == this) continue;
+                it.remove();
+                if (victims == null) victims = new ArrayList<MarketTile>();
+                victims.add(eldest);
+            }
+        }
+        if (victims == null) return;
+        for (MarketTile victim : victims) {
+            victim.evict();
+        }
+    }
+
+    // Called with no locks held. A pinned market is in use: it goes back on the list instead.
+    private void evict() {
+        synchronized (this) {
+            if (market == null) return;
+            if (pins == 0) {
+                evicted = market.retire();
+                market = null;
+                return;
+            }
+        }
+        synchronized (liveMarkets) {
+            liveMarkets.put(this, Boolean.TRUE);
+        }
     }
 }